@@ -0,0 +1,146 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Konduit K.K.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.deeplearning4j.rl4j.learning.async;
+
+import org.deeplearning4j.nn.gradient.Gradient;
+import org.deeplearning4j.rl4j.learning.configuration.LearningConfiguration;
+import org.deeplearning4j.rl4j.network.ac.ActorCriticFactoryCompGraphStdDense;
+import org.deeplearning4j.rl4j.network.ac.IActorCritic;
+import org.deeplearning4j.rl4j.network.configuration.NetworkConfiguration;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.learning.config.Adam;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how many worker gradients per second the global learner can apply, for an increasing number of
+ * worker threads. The total number of gradients per invocation is fixed and split evenly between the threads.
+ * In QUEUED mode, an invocation ends when the learner thread has applied all the gradients.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class AsyncGlobalBenchmark {
+
+    private static final int GRADIENTS_PER_INVOCATION = 240;
+    private static final int NSTEP = 5;
+    private static final int[] OBSERVATION_SHAPE = new int[]{4};
+    private static final int NUM_ACTIONS = 2;
+
+    @Param({"LOCKED", "HOGWILD", "QUEUED"})
+    private LearningConfiguration.GlobalUpdateMode mode;
+
+    @Param({"1", "2", "4", "8"})
+    private int threads;
+
+    @Param({"64"})
+    private int hiddenNodes;
+
+    private IAsyncGlobal<IActorCritic> asyncGlobal;
+    private Gradient[][] workerGradients;
+    private ExecutorService executor;
+    private int expectedUpdateCount;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        NetworkConfiguration networkConfiguration = NetworkConfiguration.builder()
+                .numHiddenNodes(hiddenNodes)
+                .numLayers(3)
+                .updater(new Adam(1e-3))
+                .build();
+        IActorCritic global = new ActorCriticFactoryCompGraphStdDense(networkConfiguration)
+                .buildActorCritic(OBSERVATION_SHAPE, NUM_ACTIONS);
+
+        LearningConfiguration configuration = LearningConfiguration.builder()
+                .maxStep(Integer.MAX_VALUE)
+                .globalUpdateMode(mode)
+                .build();
+        switch (mode) {
+            case HOGWILD:
+                asyncGlobal = new HogwildAsyncGlobal<>(global, configuration);
+                break;
+
+            case QUEUED:
+                asyncGlobal = new QueuedAsyncGlobal<>(global, configuration);
+                break;
+
+            default:
+                asyncGlobal = new AsyncGlobal<>(global, configuration);
+                break;
+        }
+
+        // Each worker computes its gradient once with its own clone, like the worker threads do
+        workerGradients = new Gradient[threads][];
+        for (int i = 0; i < threads; ++i) {
+            IActorCritic worker = (IActorCritic) global.clone();
+            INDArray input = Nd4j.rand(NSTEP, OBSERVATION_SHAPE[0]);
+            INDArray[] labels = new INDArray[]{Nd4j.rand(NSTEP, 1), Nd4j.rand(NSTEP, NUM_ACTIONS)};
+            workerGradients[i] = worker.gradient(input, labels);
+        }
+
+        executor = Executors.newFixedThreadPool(threads);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdownNow();
+        asyncGlobal.terminate();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(GRADIENTS_PER_INVOCATION)
+    public void applyGradient() throws InterruptedException {
+        int gradientsPerThread = GRADIENTS_PER_INVOCATION / threads;
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int i = 0; i < threads; ++i) {
+            Gradient[] gradient = workerGradients[i];
+            executor.execute(() -> {
+                for (int j = 0; j < gradientsPerThread; ++j) {
+                    asyncGlobal.applyGradient(gradient, NSTEP);
+                }
+                done.countDown();
+            });
+        }
+        done.await();
+
+        expectedUpdateCount += GRADIENTS_PER_INVOCATION;
+        while (asyncGlobal.getWorkerUpdateCount() < expectedUpdateCount) {
+            Thread.yield();
+        }
+    }
+}
@@ -0,0 +1,171 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Konduit K.K.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.deeplearning4j.rl4j.learning.async;
+
+import org.deeplearning4j.nn.gradient.Gradient;
+import org.deeplearning4j.rl4j.learning.async.distributed.GradientCodecFactory;
+import org.deeplearning4j.rl4j.learning.configuration.LearningConfiguration;
+import org.deeplearning4j.rl4j.network.ac.ActorCriticFactoryCompGraphStdDense;
+import org.deeplearning4j.rl4j.network.ac.IActorCritic;
+import org.deeplearning4j.rl4j.network.configuration.NetworkConfiguration;
+import org.nd4j.linalg.api.buffer.DataType;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.indexing.INDArrayIndex;
+import org.nd4j.linalg.indexing.NDArrayIndex;
+import org.nd4j.linalg.learning.config.Adam;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the effect of each gradient compression on the convergence. A worker trains the actor-critic, through a
+ * {@link QueuedAsyncGlobal}, to imitate a fixed linear teacher policy and to predict a fixed value; the gradients take
+ * the same path as in the worker threads (encoded by the worker, decoded by the learner thread).
+ * <p>
+ * Each invocation trains a new network from the same initial parameters for a fixed number of updates. The time of
+ * the whole training is measured; the accuracy of the trained policy, the mean squared error of the trained values and
+ * the number of bytes moved are printed at the end of each iteration.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+public class GradientCompressionConvergenceBenchmark {
+
+    private static final int[] OBSERVATION_SHAPE = new int[]{8};
+    private static final int NUM_ACTIONS = 4;
+    private static final int DATASET_SIZE = 512;
+    private static final int NSTEP = 16;
+    private static final int NUM_UPDATES = 250;
+
+    @Param({"NONE", "FLOAT16", "INT8", "TOP_K"})
+    private LearningConfiguration.GradientCompression compression;
+
+    @Param({"0.01"})
+    private double density;
+
+    private INDArray observations;
+    private INDArray valueLabels;
+    private INDArray policyLabels;
+    private int[] teacherActions;
+
+    private IActorCritic global;
+    private QueuedAsyncGlobal<IActorCritic> asyncGlobal;
+    private IActorCritic worker;
+    private GradientCompressor compressor;
+
+    private double accuracy;
+    private double valueError;
+
+    @Setup(Level.Trial)
+    public void setupDataset() {
+        Nd4j.getRandom().setSeed(123);
+        observations = Nd4j.rand(DataType.FLOAT, DATASET_SIZE, OBSERVATION_SHAPE[0]).muli(2.0).subi(1.0);
+        INDArray teacher = Nd4j.randn(DataType.FLOAT, OBSERVATION_SHAPE[0], NUM_ACTIONS);
+        INDArray teacherActionsArray = observations.mmul(teacher).argMax(1);
+
+        teacherActions = new int[DATASET_SIZE];
+        policyLabels = Nd4j.zeros(DataType.FLOAT, DATASET_SIZE, NUM_ACTIONS);
+        for (int i = 0; i < DATASET_SIZE; ++i) {
+            teacherActions[i] = teacherActionsArray.getInt(i);
+            policyLabels.putScalar(i, teacherActions[i], 1.0);
+        }
+        valueLabels = observations.sum(1).reshape(DATASET_SIZE, 1);
+    }
+
+    @Setup(Level.Iteration)
+    public void setupTraining() {
+        NetworkConfiguration networkConfiguration = NetworkConfiguration.builder()
+                .numHiddenNodes(64)
+                .numLayers(3)
+                .updater(new Adam(1e-3))
+                .build();
+        global = new ActorCriticFactoryCompGraphStdDense(networkConfiguration).buildActorCritic(OBSERVATION_SHAPE, NUM_ACTIONS);
+
+        LearningConfiguration configuration = LearningConfiguration.builder()
+                .maxStep(Integer.MAX_VALUE)
+                .globalUpdateMode(LearningConfiguration.GlobalUpdateMode.QUEUED)
+                .gradientCompression(compression)
+                .gradientCompressionDensity(density)
+                .build();
+        asyncGlobal = new QueuedAsyncGlobal<>(global, configuration);
+        worker = (IActorCritic) global.replicateForInference();
+        compressor = compression == LearningConfiguration.GradientCompression.NONE
+                ? null
+                : new GradientCompressor(GradientCodecFactory.create(configuration));
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        String bytes = compressor == null
+                ? "1.0000"
+                : String.format("%.4f", (double) compressor.getEncodedBytes() / compressor.getUncompressedBytes());
+        System.out.printf("%n%s: accuracy=%.4f valueError=%.5f, %s of the float32 bytes%n", compression, accuracy, valueError, bytes);
+    }
+
+    @Benchmark
+    public double train() {
+        long workerTargetVersion = -1;
+        for (int i = 0; i < NUM_UPDATES; ++i) {
+            TargetSnapshot<IActorCritic> snapshot = asyncGlobal.getTargetSnapshot();
+            if (snapshot.getVersion() != workerTargetVersion) {
+                snapshot.copyTo(worker);
+                workerTargetVersion = snapshot.getVersion();
+            }
+
+            int start = (i * NSTEP) % DATASET_SIZE;
+            INDArrayIndex rows = NDArrayIndex.interval(start, start + NSTEP);
+            Gradient[] gradient = worker.gradient(observations.get(rows, NDArrayIndex.all()),
+                    new INDArray[]{valueLabels.get(rows, NDArrayIndex.all()), policyLabels.get(rows, NDArrayIndex.all())});
+            if (compressor == null) {
+                asyncGlobal.applyGradient(gradient, NSTEP);
+            } else {
+                asyncGlobal.applyGradient(compressor.compress(gradient), NSTEP);
+            }
+        }
+
+        // Waits for the queued gradients to be applied
+        asyncGlobal.terminate();
+
+        INDArray[] output = global.outputAll(observations);
+        INDArray actions = output[1].argMax(1);
+        int correct = 0;
+        for (int i = 0; i < DATASET_SIZE; ++i) {
+            if (actions.getInt(i) == teacherActions[i]) {
+                ++correct;
+            }
+        }
+        accuracy = (double) correct / DATASET_SIZE;
+        valueError = output[0].squaredDistance(valueLabels) / DATASET_SIZE;
+        return accuracy;
+    }
+}
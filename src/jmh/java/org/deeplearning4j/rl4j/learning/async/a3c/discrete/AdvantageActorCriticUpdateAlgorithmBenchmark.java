@@ -0,0 +1,101 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Konduit K.K.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.deeplearning4j.rl4j.learning.async.a3c.discrete;
+
+import org.deeplearning4j.nn.gradient.Gradient;
+import org.deeplearning4j.rl4j.experience.Rollout;
+import org.deeplearning4j.rl4j.experience.RolloutExperienceHandler;
+import org.deeplearning4j.rl4j.experience.StateActionPair;
+import org.deeplearning4j.rl4j.network.ac.ActorCriticFactoryCompGraphStdDense;
+import org.deeplearning4j.rl4j.network.ac.IActorCritic;
+import org.deeplearning4j.rl4j.network.configuration.NetworkConfiguration;
+import org.deeplearning4j.rl4j.observation.Observation;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.learning.config.Adam;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link AdvantageActorCriticUpdateAlgorithm#computeGradients}, from a list of {@link StateActionPair}
+ * and from a {@link Rollout}, for a cartpole-sized network.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class AdvantageActorCriticUpdateAlgorithmBenchmark {
+
+    private static final int[] OBSERVATION_SHAPE = new int[]{4};
+    private static final int NUM_ACTIONS = 2;
+
+    @Param({"5", "20"})
+    private int nStep;
+
+    @Param({"64"})
+    private int hiddenNodes;
+
+    private IActorCritic actorCritic;
+    private AdvantageActorCriticUpdateAlgorithm updateAlgorithm;
+    private List<StateActionPair<Integer>> experience;
+    private Rollout rollout;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        NetworkConfiguration networkConfiguration = NetworkConfiguration.builder()
+                .numHiddenNodes(hiddenNodes)
+                .numLayers(3)
+                .updater(new Adam(1e-3))
+                .build();
+        actorCritic = new ActorCriticFactoryCompGraphStdDense(networkConfiguration).buildActorCritic(OBSERVATION_SHAPE, NUM_ACTIONS);
+        updateAlgorithm = new AdvantageActorCriticUpdateAlgorithm(false, OBSERVATION_SHAPE, NUM_ACTIONS, 0.99);
+
+        experience = new ArrayList<>();
+        RolloutExperienceHandler rolloutHandler = new RolloutExperienceHandler(nStep, OBSERVATION_SHAPE);
+        for (int i = 0; i < nStep; ++i) {
+            Observation observation = new Observation(Nd4j.rand(1, OBSERVATION_SHAPE[0]));
+            experience.add(new StateActionPair<>(observation, i % NUM_ACTIONS, 1.0, false));
+            rolloutHandler.addExperience(observation, i % NUM_ACTIONS, 1.0, false);
+        }
+        rollout = rolloutHandler.generateTrainingBatch().get(0);
+    }
+
+    @Benchmark
+    public Gradient[] computeGradientsFromList() {
+        return updateAlgorithm.computeGradients(actorCritic, experience);
+    }
+
+    @Benchmark
+    public Gradient[] computeGradientsFromRollout() {
+        return updateAlgorithm.computeGradients(actorCritic, rollout);
+    }
+}
@@ -0,0 +1,136 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Konduit K.K.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.deeplearning4j.rl4j.learning.async.distributed;
+
+import org.deeplearning4j.nn.gradient.Gradient;
+import org.deeplearning4j.rl4j.learning.async.EncodedGradient;
+import org.deeplearning4j.rl4j.learning.async.GradientCompressor;
+import org.deeplearning4j.rl4j.learning.configuration.LearningConfiguration;
+import org.deeplearning4j.rl4j.network.ac.ActorCriticFactoryCompGraphStdConv;
+import org.deeplearning4j.rl4j.network.ac.ActorCriticFactoryCompGraphStdDense;
+import org.deeplearning4j.rl4j.network.ac.IActorCritic;
+import org.deeplearning4j.rl4j.network.configuration.NetworkConfiguration;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.learning.config.Adam;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of encoding a worker gradient (on the worker thread) and of decoding it (on the learner thread)
+ * with each gradient compression, for the dense and the convolutional actor-critic. The number of bytes moved per
+ * gradient, compared to 32-bit floats, is printed at the end of each trial.
+ * <p>
+ * See {@link org.deeplearning4j.rl4j.learning.async.GradientCompressionConvergenceBenchmark} for the effect of the
+ * compression on the convergence.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class GradientCodecBenchmark {
+
+    private static final int[] DENSE_OBSERVATION_SHAPE = new int[]{4};
+    private static final int[] CONV_OBSERVATION_SHAPE = new int[]{4, 84, 84};
+    private static final int NUM_ACTIONS = 4;
+    private static final int NSTEP = 5;
+
+    @Param({"NONE", "FLOAT16", "INT8", "TOP_K"})
+    private LearningConfiguration.GradientCompression compression;
+
+    @Param({"DENSE", "CONV"})
+    private String network;
+
+    @Param({"0.01"})
+    private double density;
+
+    private Gradient[] gradient;
+    private GradientCompressor compressor;
+    private EncodedGradient encoded;
+    private GradientCodec decoder;
+    private Gradient[] decoded;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        NetworkConfiguration networkConfiguration = NetworkConfiguration.builder()
+                .numHiddenNodes(64)
+                .numLayers(3)
+                .updater(new Adam(1e-3))
+                .build();
+
+        int[] observationShape = "CONV".equals(network) ? CONV_OBSERVATION_SHAPE : DENSE_OBSERVATION_SHAPE;
+        IActorCritic actorCritic = "CONV".equals(network)
+                ? new ActorCriticFactoryCompGraphStdConv(networkConfiguration).buildActorCritic(observationShape, NUM_ACTIONS)
+                : new ActorCriticFactoryCompGraphStdDense(networkConfiguration).buildActorCritic(observationShape, NUM_ACTIONS);
+
+        long[] inputShape = new long[observationShape.length + 1];
+        inputShape[0] = NSTEP;
+        for (int i = 0; i < observationShape.length; ++i) {
+            inputShape[i + 1] = observationShape[i];
+        }
+        INDArray input = Nd4j.rand(inputShape);
+        INDArray[] labels = new INDArray[]{Nd4j.rand(NSTEP, 1), Nd4j.rand(NSTEP, NUM_ACTIONS)};
+        gradient = actorCritic.gradient(input, labels);
+
+        LearningConfiguration configuration = LearningConfiguration.builder()
+                .gradientCompression(compression)
+                .gradientCompressionDensity(density)
+                .build();
+        compressor = new GradientCompressor(GradientCodecFactory.create(configuration));
+
+        encoded = new EncodedGradient();
+        encoded.copyFrom(new GradientCompressor(GradientCodecFactory.create(configuration)).compress(gradient));
+        decoder = GradientCodecFactory.create(configuration);
+        decoded = encoded.getLayout().allocate();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        long uncompressedBytes = 0;
+        for (int i = 0; i < encoded.getLayout().getNumNetworks(); ++i) {
+            uncompressedBytes += encoded.getLayout().getLength(i) * Float.BYTES;
+        }
+        System.out.printf("%n%s %s: %.4f of the float32 bytes%n", network, compression, (double) encoded.size() / uncompressedBytes);
+    }
+
+    @Benchmark
+    public EncodedGradient encode() {
+        return compressor.compress(gradient);
+    }
+
+    @Benchmark
+    public Gradient[] decode() throws IOException {
+        decoder.decode(encoded.toInputStream(), decoded);
+        return decoded;
+    }
+}
@@ -0,0 +1,91 @@
+package org.deeplearning4j.rl4j.mdp;
+
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the allocating and the allocation-free step paths of {@link CartpoleEnvironment} and {@link CartpoleNative}.
+ * <p>
+ * Run with the GC profiler (enabled in the jmh block of build.gradle, or with -prof gc): the buffer-based
+ * benchmarks must report a gc.alloc.rate.norm of ~0 B/op.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class CartpoleStepBenchmark {
+
+    private static final int SEED = 123;
+
+    private CartpoleEnvironment environment;
+    private CartpoleNative mdp;
+    private double[] observationBuffer;
+    private INDArray observationArray;
+    private int action;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        environment = new CartpoleEnvironment(SEED);
+        mdp = new CartpoleNative(SEED);
+        observationBuffer = new double[4];
+        observationArray = Nd4j.create(1, 4);
+
+        environment.reset(observationBuffer);
+        mdp.reset(observationArray);
+    }
+
+    private int nextAction() {
+        action ^= 1;
+        return action;
+    }
+
+    @Benchmark
+    public void environmentStep(Blackhole blackhole) {
+        blackhole.consume(environment.step(nextAction()));
+        if (environment.isEpisodeFinished()) {
+            blackhole.consume(environment.reset());
+        }
+    }
+
+    @Benchmark
+    public double environmentStepIntoBuffer() {
+        double reward = environment.step(nextAction(), observationBuffer);
+        if (environment.isEpisodeFinished()) {
+            environment.reset(observationBuffer);
+        }
+        return reward;
+    }
+
+    @Benchmark
+    public void nativeStep(Blackhole blackhole) {
+        blackhole.consume(mdp.step(nextAction()));
+        if (mdp.isDone()) {
+            blackhole.consume(mdp.reset());
+        }
+    }
+
+    @Benchmark
+    public double nativeStepIntoArray() {
+        double reward = mdp.step(nextAction(), observationArray);
+        if (mdp.isDone()) {
+            mdp.reset(observationArray);
+        }
+        return reward;
+    }
+}
@@ -0,0 +1,92 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Konduit K.K.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.deeplearning4j.rl4j.network.ac;
+
+import org.deeplearning4j.nn.gradient.Gradient;
+import org.deeplearning4j.rl4j.network.configuration.NetworkConfiguration;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.learning.config.Adam;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of computing a gradient and of applying it to an actor-critic network, for both network types.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ActorCriticApplyGradientBenchmark {
+
+    private static final int[] OBSERVATION_SHAPE = new int[]{4};
+    private static final int NUM_ACTIONS = 2;
+
+    @Param({"COMP_GRAPH", "SEPARATE"})
+    private String network;
+
+    @Param({"64"})
+    private int hiddenNodes;
+
+    @Param({"20"})
+    private int batchSize;
+
+    private IActorCritic actorCritic;
+    private INDArray input;
+    private INDArray[] labels;
+    private Gradient[] gradient;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        NetworkConfiguration networkConfiguration = NetworkConfiguration.builder()
+                .numHiddenNodes(hiddenNodes)
+                .numLayers(3)
+                .updater(new Adam(1e-3))
+                .build();
+        actorCritic = "SEPARATE".equals(network)
+                ? new ActorCriticFactorySeparateStdDense(networkConfiguration).buildActorCritic(OBSERVATION_SHAPE, NUM_ACTIONS)
+                : new ActorCriticFactoryCompGraphStdDense(networkConfiguration).buildActorCritic(OBSERVATION_SHAPE, NUM_ACTIONS);
+
+        input = Nd4j.rand(batchSize, OBSERVATION_SHAPE[0]);
+        labels = new INDArray[]{Nd4j.rand(batchSize, 1), Nd4j.rand(batchSize, NUM_ACTIONS)};
+        gradient = actorCritic.gradient(input, labels);
+    }
+
+    @Benchmark
+    public Gradient[] gradient() {
+        return actorCritic.gradient(input, labels);
+    }
+
+    @Benchmark
+    public void applyGradient() {
+        actorCritic.applyGradient(gradient, batchSize);
+    }
+}
@@ -0,0 +1,118 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Konduit K.K.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.deeplearning4j.rl4j.observation.transform;
+
+import org.deeplearning4j.rl4j.observation.Observation;
+import org.deeplearning4j.rl4j.observation.transform.operation.HistoryMergeTransform;
+import org.deeplearning4j.rl4j.observation.transform.operation.SimpleNormalizationTransform;
+import org.deeplearning4j.rl4j.observation.transform.operation.historymerge.RingBufferStackStore;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the observation pipeline on Atari-sized frames: a {@link TransformProcess} that normalizes a [1, 84, 84]
+ * frame and stacks the last 4 frames, fed either through a channels map or through the channel slots, and the
+ * {@link HistoryMergeTransform} alone, with the default store and assembler and with a {@link RingBufferStackStore}.
+ * <p>
+ * The normalization works in place, so each invocation first refreshes its input frame from a source frame.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class TransformProcessBenchmark {
+
+    private static final int FRAME_STACK_LENGTH = 4;
+    private static final long[] FRAME_SHAPE = new long[]{1, 84, 84};
+
+    private TransformProcess transformProcess;
+    private HistoryMergeTransform historyMergeTransform;
+    private HistoryMergeTransform ringBufferHistoryMergeTransform;
+    private INDArray sourceFrame;
+    private INDArray frame;
+    private Object[] channelsData;
+    private int dataChannelIndex;
+    private int step;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        transformProcess = TransformProcess.builder()
+                .transform("data", new SimpleNormalizationTransform(0.0, 255.0))
+                .transform("data", HistoryMergeTransform.builder()
+                        .isFirstDimenstionBatch(true)
+                        .build(FRAME_STACK_LENGTH))
+                .build("data");
+
+        historyMergeTransform = HistoryMergeTransform.builder()
+                .isFirstDimenstionBatch(true)
+                .shouldStoreCopy(true)
+                .build(FRAME_STACK_LENGTH);
+
+        ringBufferHistoryMergeTransform = HistoryMergeTransform.builder()
+                .isFirstDimenstionBatch(true)
+                .elementStore(new RingBufferStackStore(FRAME_STACK_LENGTH))
+                .build(FRAME_STACK_LENGTH);
+
+        sourceFrame = Nd4j.rand(FRAME_SHAPE).muli(255.0);
+        frame = sourceFrame.dup();
+
+        channelsData = new Object[transformProcess.getNumChannels()];
+        dataChannelIndex = transformProcess.getChannelIndex("data");
+    }
+
+    @Benchmark
+    public Observation transformProcess() {
+        frame.assign(sourceFrame);
+        Map<String, Object> channelsData = new HashMap<>();
+        channelsData.put("data", frame);
+        return transformProcess.transform(channelsData, step++, false);
+    }
+
+    @Benchmark
+    public Observation transformProcessWithChannelSlots() {
+        frame.assign(sourceFrame);
+        channelsData[dataChannelIndex] = frame;
+        return transformProcess.transform(channelsData, step++, false);
+    }
+
+    @Benchmark
+    public INDArray historyMergeTransform() {
+        return historyMergeTransform.transform(sourceFrame);
+    }
+
+    @Benchmark
+    public INDArray ringBufferHistoryMergeTransform() {
+        return ringBufferHistoryMergeTransform.transform(sourceFrame);
+    }
+}
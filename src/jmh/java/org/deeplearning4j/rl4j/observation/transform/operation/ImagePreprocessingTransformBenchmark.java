@@ -0,0 +1,120 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Konduit K.K.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.deeplearning4j.rl4j.observation.transform.operation;
+
+import org.datavec.image.transform.ColorConversionTransform;
+import org.datavec.image.transform.CropImageTransform;
+import org.datavec.image.transform.MultiImageTransform;
+import org.datavec.image.transform.ResizeImageTransform;
+import org.deeplearning4j.rl4j.observation.Observation;
+import org.deeplearning4j.rl4j.observation.transform.EncodableToINDArrayTransform;
+import org.deeplearning4j.rl4j.observation.transform.TransformProcess;
+import org.deeplearning4j.rl4j.observation.transform.legacy.EncodableToImageWritableTransform;
+import org.deeplearning4j.rl4j.observation.transform.legacy.ImageWritableToINDArrayTransform;
+import org.deeplearning4j.rl4j.observation.transform.operation.historymerge.RingBufferStackStore;
+import org.nd4j.linalg.api.buffer.DataType;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static org.bytedeco.opencv.global.opencv_imgproc.COLOR_BGR2GRAY;
+
+/**
+ * Measures the preprocessing of an Atari frame, a [3, 210, 160] image cropped to 168x160 and resized to a grayscale
+ * 84x84 stack of the last 4 frames: with the chain of OpenCV transforms previously used by the LegacyMDPWrapper, and
+ * with the {@link ImagePreprocessingTransform}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ImagePreprocessingTransformBenchmark {
+
+    private static final int FRAME_STACK_LENGTH = 4;
+    private static final int CROP_TOP = 26;
+    private static final int CROP_BOTTOM = 16;
+    private static final int RESCALED_SIZE = 84;
+
+    private TransformProcess legacyTransformProcess;
+    private TransformProcess fusedTransformProcess;
+    private ImagePreprocessingTransform imagePreprocessingTransform;
+    private Observation frame;
+
+    @Setup
+    public void setup() {
+        legacyTransformProcess = TransformProcess.builder()
+                .transform("data", new EncodableToImageWritableTransform())
+                .transform("data", new MultiImageTransform(
+                        new CropImageTransform(CROP_TOP, 0, CROP_BOTTOM, 0),
+                        new ResizeImageTransform(RESCALED_SIZE, RESCALED_SIZE),
+                        new ColorConversionTransform(COLOR_BGR2GRAY)
+                ))
+                .transform("data", new ImageWritableToINDArrayTransform())
+                .transform("data", new SimpleNormalizationTransform(0.0, 255.0))
+                .transform("data", HistoryMergeTransform.builder()
+                        .isFirstDimenstionBatch(true)
+                        .elementStore(new RingBufferStackStore(FRAME_STACK_LENGTH))
+                        .build(FRAME_STACK_LENGTH))
+                .build("data");
+
+        imagePreprocessingTransform = ImagePreprocessingTransform.builder()
+                .crop(CROP_TOP, 0, CROP_BOTTOM, 0)
+                .build(RESCALED_SIZE, RESCALED_SIZE);
+
+        fusedTransformProcess = TransformProcess.builder()
+                .transform("data", new EncodableToINDArrayTransform())
+                .transform("data", ImagePreprocessingTransform.builder()
+                        .crop(CROP_TOP, 0, CROP_BOTTOM, 0)
+                        .build(RESCALED_SIZE, RESCALED_SIZE))
+                .transform("data", HistoryMergeTransform.builder()
+                        .isFirstDimenstionBatch(true)
+                        .elementStore(new RingBufferStackStore(FRAME_STACK_LENGTH))
+                        .build(FRAME_STACK_LENGTH))
+                .build("data");
+
+        frame = new Observation(Nd4j.rand(DataType.FLOAT, 3, 210, 160).muli(255.0));
+    }
+
+    @Benchmark
+    public Observation legacyTransformProcess() {
+        return legacyTransformProcess.transform(Collections.singletonMap("data", frame), 0, false);
+    }
+
+    @Benchmark
+    public Observation fusedTransformProcess() {
+        return fusedTransformProcess.transform(Collections.singletonMap("data", frame), 0, false);
+    }
+
+    @Benchmark
+    public INDArray imagePreprocessingTransform() {
+        return imagePreprocessingTransform.transform(frame.getData());
+    }
+}
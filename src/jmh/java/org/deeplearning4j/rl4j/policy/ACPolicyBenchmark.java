@@ -0,0 +1,84 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Konduit K.K.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.deeplearning4j.rl4j.policy;
+
+import org.deeplearning4j.rl4j.network.ac.ActorCriticFactoryCompGraphStdDense;
+import org.deeplearning4j.rl4j.network.ac.ActorCriticFactorySeparateStdDense;
+import org.deeplearning4j.rl4j.network.ac.IActorCritic;
+import org.deeplearning4j.rl4j.network.configuration.NetworkConfiguration;
+import org.deeplearning4j.rl4j.space.Encodable;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.learning.config.Adam;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the latency of choosing one action with a stochastic {@link ACPolicy}, forward pass included.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ACPolicyBenchmark {
+
+    private static final int[] OBSERVATION_SHAPE = new int[]{4};
+    private static final int NUM_ACTIONS = 2;
+
+    @Param({"COMP_GRAPH", "SEPARATE"})
+    private String network;
+
+    @Param({"64"})
+    private int hiddenNodes;
+
+    private ACPolicy<Encodable> policy;
+    private INDArray observation;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        NetworkConfiguration networkConfiguration = NetworkConfiguration.builder()
+                .numHiddenNodes(hiddenNodes)
+                .numLayers(3)
+                .updater(new Adam(1e-3))
+                .build();
+        IActorCritic actorCritic = "SEPARATE".equals(network)
+                ? new ActorCriticFactorySeparateStdDense(networkConfiguration).buildActorCritic(OBSERVATION_SHAPE, NUM_ACTIONS)
+                : new ActorCriticFactoryCompGraphStdDense(networkConfiguration).buildActorCritic(OBSERVATION_SHAPE, NUM_ACTIONS);
+
+        policy = new ACPolicy<>(actorCritic, Nd4j.getRandomFactory().getNewRandomInstance(123));
+        observation = Nd4j.rand(1, OBSERVATION_SHAPE[0]);
+    }
+
+    @Benchmark
+    public Integer nextAction() {
+        return policy.nextAction(observation);
+    }
+}
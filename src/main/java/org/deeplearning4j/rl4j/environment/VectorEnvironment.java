@@ -0,0 +1,39 @@
+package org.deeplearning4j.rl4j.environment;
+
+import org.nd4j.linalg.api.ndarray.INDArray;
+
+/**
+ * An environment made of several sub-environments that are stepped together, with a single call.
+ * <p>
+ * The observations of all sub-environments are returned in a single INDArray of shape [numEnvironments, observation shape...]
+ * which is allocated once and updated in place by {@link #reset()} and {@link #step(Object[])}.
+ * A sub-environment whose episode is finished is reset automatically by the step that finished it; the observation
+ * returned for it is then the first observation of its new episode.
+ *
+ * @param <ACTION> The type of actions
+ */
+public interface VectorEnvironment<ACTION> {
+    Schema<ACTION> getSchema();
+
+    /**
+     * @return The number of sub-environments
+     */
+    int getNumEnvironments();
+
+    /**
+     * Reset all sub-environments
+     *
+     * @return The observations of all sub-environments. The same instance is updated by every reset() and step().
+     */
+    INDArray reset();
+
+    /**
+     * Step all sub-environments
+     *
+     * @param actions One action per sub-environment
+     * @return The result of the step. The same instance is updated by every step().
+     */
+    VectorStepResult step(ACTION[] actions);
+
+    void close();
+}
@@ -0,0 +1,15 @@
+package org.deeplearning4j.rl4j.environment;
+
+import lombok.Value;
+import org.nd4j.linalg.api.ndarray.INDArray;
+
+/**
+ * The result of a {@link VectorEnvironment#step(Object[]) VectorEnvironment step}. Element i of each field is
+ * the result of sub-environment i.
+ */
+@Value
+public class VectorStepResult {
+    private INDArray observations;
+    private double[] rewards;
+    private boolean[] terminals;
+}
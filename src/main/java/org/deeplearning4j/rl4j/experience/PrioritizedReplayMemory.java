@@ -0,0 +1,114 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Konduit K.K.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+package org.deeplearning4j.rl4j.experience;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.nd4j.linalg.api.rng.Random;
+
+/**
+ * A {@link ReplayMemory} with proportional prioritized sampling (https://arxiv.org/abs/1511.05952).
+ * <p>
+ * Transition i is sampled with probability p(i)^alpha / sum(p^alpha). New transitions get the highest priority seen
+ * so far, and the learner updates the priorities of the sampled transitions with their TD-errors, see
+ * {@link #updatePriorities(int[], double[])}. The priorities are kept in a {@link SumTree}, so sampling and updating
+ * are O(log capacity).
+ * <p>
+ * The importance-sampling weights (N * P(i))^-beta are normalized by the largest weight of the batch.
+ */
+public class PrioritizedReplayMemory extends ReplayMemory {
+
+    private final SumTree priorities;
+    private final double alpha;
+    private final double epsilon;
+
+    /**
+     * The exponent of the importance-sampling weights; usually annealed from its initial value to 1.0
+     */
+    @Getter
+    @Setter
+    private double beta;
+
+    private double maxPriority = 1.0;
+
+    /**
+     * @param capacity         The maximum number of transitions in the memory
+     * @param batchSize        The number of transitions in each sampled minibatch
+     * @param observationShape The shape of one observation, without the batch dimension
+     * @param rnd              The random generator used for sampling
+     * @param alpha            How much prioritization is used, 0 being uniform sampling
+     * @param beta             The initial exponent of the importance-sampling weights
+     * @param epsilon          Added to the TD-errors so that no transition has a priority of zero
+     */
+    public PrioritizedReplayMemory(int capacity, int batchSize, int[] observationShape, Random rnd,
+                                   double alpha, double beta, double epsilon) {
+        super(capacity, batchSize, observationShape, rnd);
+
+        priorities = new SumTree(capacity);
+        this.alpha = alpha;
+        this.beta = beta;
+        this.epsilon = epsilon;
+    }
+
+    public PrioritizedReplayMemory(int capacity, int batchSize, int[] observationShape, Random rnd) {
+        this(capacity, batchSize, observationShape, rnd, 0.6, 0.4, 1e-6);
+    }
+
+    /**
+     * Update the priorities of sampled transitions.
+     *
+     * @param indexes  The memory indexes of the transitions, from {@link ReplayBatch#getIndexes()}
+     * @param tdErrors The new TD-errors of the transitions
+     */
+    public void updatePriorities(int[] indexes, double[] tdErrors) {
+        for (int i = 0; i < indexes.length; ++i) {
+            double priority = Math.abs(tdErrors[i]) + epsilon;
+            maxPriority = Math.max(maxPriority, priority);
+            priorities.set(indexes[i], Math.pow(priority, alpha));
+        }
+    }
+
+    @Override
+    protected void sampleIndexes(int[] indexes, double[] weights) {
+        // Stratified sampling: one transition from each of batchSize equal segments of the total priority
+        double total = priorities.getTotal();
+        double segment = total / indexes.length;
+        int size = getSize();
+        double maxWeight = 0.0;
+        for (int i = 0; i < indexes.length; ++i) {
+            int index = priorities.find(segment * (i + rnd.nextDouble()));
+            indexes[i] = index;
+
+            double probability = priorities.get(index) / total;
+            weights[i] = Math.pow(size * probability, -beta);
+            maxWeight = Math.max(maxWeight, weights[i]);
+        }
+
+        for (int i = 0; i < weights.length; ++i) {
+            weights[i] /= maxWeight;
+        }
+    }
+
+    @Override
+    protected void onSlotOverwritten(int index) {
+        priorities.set(index, 0.0);
+    }
+
+    @Override
+    protected void onTransitionAdded(int index) {
+        priorities.set(index, Math.pow(maxPriority, alpha));
+    }
+}
@@ -0,0 +1,78 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Konduit K.K.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+package org.deeplearning4j.rl4j.experience;
+
+import lombok.Getter;
+import org.nd4j.linalg.api.ndarray.INDArray;
+
+/**
+ * A minibatch of transitions sampled from a {@link ReplayMemory}, in struct-of-arrays form. Transition i of the batch
+ * is at row i of the observation arrays and at index i of the primitive arrays.
+ * <p>
+ * The arrays are reused: the batch is only valid until the next batch is sampled from the same memory.
+ */
+public class ReplayBatch {
+
+    /**
+     * The observations before the actions, a [batchSize, observation shape] array
+     */
+    @Getter
+    private final INDArray observations;
+
+    /**
+     * The observations after the actions, a [batchSize, observation shape] array. Undefined for terminal transitions.
+     */
+    @Getter
+    private final INDArray nextObservations;
+
+    @Getter
+    private final int[] actions;
+
+    @Getter
+    private final double[] rewards;
+
+    /**
+     * True if the episode ended after the action
+     */
+    @Getter
+    private final boolean[] terminals;
+
+    /**
+     * The indexes of the transitions in the memory. Used to update their priorities, see {@link PrioritizedReplayMemory#updatePriorities(int[], double[])}
+     */
+    @Getter
+    private final int[] indexes;
+
+    /**
+     * The importance-sampling weights of the transitions; all 1.0 with uniform sampling.
+     */
+    @Getter
+    private final double[] weights;
+
+    ReplayBatch(INDArray observations, INDArray nextObservations, int batchSize) {
+        this.observations = observations;
+        this.nextObservations = nextObservations;
+        actions = new int[batchSize];
+        rewards = new double[batchSize];
+        terminals = new boolean[batchSize];
+        indexes = new int[batchSize];
+        weights = new double[batchSize];
+    }
+
+    public int getSize() {
+        return actions.length;
+    }
+}
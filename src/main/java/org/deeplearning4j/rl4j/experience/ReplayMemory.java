@@ -0,0 +1,229 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Konduit K.K.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+package org.deeplearning4j.rl4j.experience;
+
+import lombok.Getter;
+import org.deeplearning4j.rl4j.learning.Learning;
+import org.deeplearning4j.rl4j.observation.Observation;
+import org.nd4j.common.base.Preconditions;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.rng.Random;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A fixed-capacity experience replay memory for off-policy learners, with uniform sampling.
+ * <p>
+ * The observations are stored in circular [capacity, observation shape] arrays (off-heap, like all INDArrays) and
+ * the actions, rewards and terminal flags in primitive arrays. When the memory is full, the oldest transitions are
+ * overwritten. A transition is only stored once its next observation is known: on the next call to
+ * {@link #addExperience(Observation, Integer, double, boolean) addExperience()}, on {@link #setFinalObservation(Observation)},
+ * or immediately if it is terminal.
+ * <p>
+ * {@link #generateTrainingBatch()} samples a minibatch without removing anything from the memory, and
+ * {@link #reset()} only marks the start of a new episode; the stored transitions are kept.
+ */
+public class ReplayMemory implements ExperienceHandler<Integer, ReplayBatch> {
+
+    @Getter
+    private final int capacity;
+    @Getter
+    private final int batchSize;
+    protected final Random rnd;
+
+    private final int numFeatures;
+    // 2D views of the circular observation stores: [capacity, numFeatures]
+    private final INDArray observations;
+    private final INDArray nextObservations;
+    private final int[] actions;
+    private final double[] rewards;
+    private final boolean[] terminals;
+
+    private final ReplayBatch batch;
+    private final INDArray batchObservations;
+    private final INDArray batchNextObservations;
+    private final List<ReplayBatch> trainingBatch;
+
+    /**
+     * The number of complete transitions in the memory
+     */
+    @Getter
+    private int size = 0;
+    private int writeIndex = 0;
+    // The slot of the transition that waits for its next observation, or -1
+    private int pendingIndex = -1;
+
+    /**
+     * @param capacity         The maximum number of transitions in the memory
+     * @param batchSize        The number of transitions in each sampled minibatch
+     * @param observationShape The shape of one observation, without the batch dimension
+     * @param rnd              The random generator used for sampling
+     */
+    public ReplayMemory(int capacity, int batchSize, int[] observationShape, Random rnd) {
+        Preconditions.checkArgument(capacity > 1, "capacity must be greater than 1, got %s", capacity);
+        Preconditions.checkArgument(batchSize > 0, "batchSize must be greater than 0, got %s", batchSize);
+
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.rnd = rnd;
+
+        int features = 1;
+        for (int dimension : observationShape) {
+            features *= dimension;
+        }
+        numFeatures = features;
+
+        observations = Nd4j.create(capacity, numFeatures);
+        nextObservations = Nd4j.create(capacity, numFeatures);
+        actions = new int[capacity];
+        rewards = new double[capacity];
+        terminals = new boolean[capacity];
+
+        int[] batchShape = Learning.makeShape(batchSize, observationShape);
+        INDArray batchObservationsArray = Nd4j.create(batchShape);
+        INDArray batchNextObservationsArray = Nd4j.create(batchShape);
+        batchObservations = batchObservationsArray.reshape(batchSize, numFeatures);
+        batchNextObservations = batchNextObservationsArray.reshape(batchSize, numFeatures);
+        batch = new ReplayBatch(batchObservationsArray, batchNextObservationsArray, batchSize);
+        Arrays.fill(batch.getWeights(), 1.0);
+        trainingBatch = Collections.singletonList(batch);
+    }
+
+    @Override
+    public void addExperience(Observation observation, Integer action, double reward, boolean isTerminal) {
+        if (pendingIndex != -1) {
+            completePending(observation);
+        }
+
+        int index = writeIndex;
+        writeIndex = (writeIndex + 1) % capacity;
+        if (size == capacity) {
+            // The oldest transition is overwritten
+            --size;
+        }
+        onSlotOverwritten(index);
+
+        observations.putRow(index, observation.getData().reshape(1, numFeatures));
+        actions[index] = action;
+        rewards[index] = reward;
+        terminals[index] = isTerminal;
+
+        pendingIndex = index;
+        if (isTerminal) {
+            // There is no next observation to wait for
+            commitPending();
+        }
+    }
+
+    @Override
+    public void setFinalObservation(Observation observation) {
+        if (pendingIndex != -1) {
+            completePending(observation);
+        }
+    }
+
+    private void completePending(Observation nextObservation) {
+        nextObservations.putRow(pendingIndex, nextObservation.getData().reshape(1, numFeatures));
+        commitPending();
+    }
+
+    private void commitPending() {
+        ++size;
+        onTransitionAdded(pendingIndex);
+        pendingIndex = -1;
+    }
+
+    /**
+     * @return The batch size once the memory holds at least that many transitions, 0 before.
+     */
+    @Override
+    public int getTrainingBatchSize() {
+        return size >= batchSize ? batchSize : 0;
+    }
+
+    /**
+     * Sample a minibatch of transitions. Nothing is removed from the memory.
+     *
+     * @return A list containing a single {@link ReplayBatch}, which is reused by the next call
+     */
+    @Override
+    public List<ReplayBatch> generateTrainingBatch() {
+        Preconditions.checkState(size >= batchSize, "The memory holds %s transitions, less than the batch size of %s", size, batchSize);
+
+        int[] indexes = batch.getIndexes();
+        sampleIndexes(indexes, batch.getWeights());
+
+        Nd4j.pullRows(observations, batchObservations, 1, indexes);
+        Nd4j.pullRows(nextObservations, batchNextObservations, 1, indexes);
+        int[] batchActions = batch.getActions();
+        double[] batchRewards = batch.getRewards();
+        boolean[] batchTerminals = batch.getTerminals();
+        for (int i = 0; i < indexes.length; ++i) {
+            int index = indexes[i];
+            batchActions[i] = actions[index];
+            batchRewards[i] = rewards[index];
+            batchTerminals[i] = terminals[index];
+        }
+
+        return trainingBatch;
+    }
+
+    /**
+     * Drops the transition that is still waiting for its next observation, if any. The stored transitions are kept.
+     */
+    @Override
+    public void reset() {
+        if (pendingIndex != -1) {
+            writeIndex = pendingIndex;
+            pendingIndex = -1;
+        }
+    }
+
+    /**
+     * Choose the transitions of a minibatch.
+     *
+     * @param indexes Receives the memory indexes of the transitions
+     * @param weights Receives the importance-sampling weights of the transitions
+     */
+    protected void sampleIndexes(int[] indexes, double[] weights) {
+        int first = getFirstIndex();
+        for (int i = 0; i < indexes.length; ++i) {
+            indexes[i] = (first + rnd.nextInt(size)) % capacity;
+        }
+    }
+
+    /**
+     * Called when a slot is about to receive a new transition; its previous transition must not be sampled anymore.
+     */
+    protected void onSlotOverwritten(int index) {
+        // Do nothing
+    }
+
+    /**
+     * Called when the transition of a slot is complete and can be sampled.
+     */
+    protected void onTransitionAdded(int index) {
+        // Do nothing
+    }
+
+    private int getFirstIndex() {
+        int end = pendingIndex != -1 ? pendingIndex : writeIndex;
+        return (end - size + capacity) % capacity;
+    }
+}
@@ -0,0 +1,87 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Konduit K.K.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+package org.deeplearning4j.rl4j.experience;
+
+import lombok.Getter;
+import org.nd4j.linalg.api.ndarray.INDArray;
+
+/**
+ * A read-only view of the experience elements stored in a {@link RolloutExperienceHandler}, in struct-of-arrays form.
+ * Element i of the rollout is the observation at row i of {@link #getObservations()} and the action, reward and terminal
+ * flag at index i of the primitive arrays. With multi-channel observations, each channel has its own array of rows
+ * (see {@link #getObservations(int)}).
+ * <p>
+ * Nothing is copied: the rollout is only valid until the handler is reset or experience is added to it.
+ */
+public class Rollout {
+
+    private final RolloutExperienceHandler handler;
+
+    Rollout(RolloutExperienceHandler handler) {
+        this.handler = handler;
+    }
+
+    /**
+     * @return The number of experience elements in the rollout
+     */
+    public int getSize() {
+        return handler.getSize();
+    }
+
+    /**
+     * @return The number of channels of the observations
+     */
+    public int getNumChannels() {
+        return handler.getNumChannels();
+    }
+
+    /**
+     * @return A [size, observation shape] view of the observations (of the first channel of multi-channel
+     * observations). The rows must not be modified.
+     */
+    public INDArray getObservations() {
+        return handler.getObservationsView(0);
+    }
+
+    /**
+     * @param channel The index of the channel
+     * @return A [size, channel shape] view of the data of the channel. The rows must not be modified.
+     */
+    public INDArray getObservations(int channel) {
+        return handler.getObservationsView(channel);
+    }
+
+    /**
+     * @return The actions. Only the first {@link #getSize()} elements are valid.
+     */
+    public int[] getActions() {
+        return handler.getActions();
+    }
+
+    /**
+     * @return The rewards. Only the first {@link #getSize()} elements are valid.
+     */
+    public double[] getRewards() {
+        return handler.getRewards();
+    }
+
+    /**
+     * @return The terminal flags. Only the first {@link #getSize()} elements are valid.
+     */
+    public boolean[] getTerminals() {
+        return handler.getTerminals();
+    }
+}
@@ -0,0 +1,156 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Konduit K.K.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+package org.deeplearning4j.rl4j.experience;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import org.deeplearning4j.rl4j.learning.Learning;
+import org.deeplearning4j.rl4j.observation.Observation;
+import org.nd4j.common.base.Preconditions;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.indexing.INDArrayIndex;
+import org.nd4j.linalg.indexing.NDArrayIndex;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A fixed-capacity, struct-of-arrays replacement for {@link StateActionExperienceHandler}.
+ * <p>
+ * The observations are copied in a preallocated [capacity, observation shape] array and the actions, rewards and
+ * terminal flags in primitive arrays, so no object is allocated per step. The training batch is a single
+ * {@link Rollout}: a view over these arrays, valid until experience is added again.
+ * <p>
+ * Each channel of multi-channel observations is copied in its own [capacity, channel shape] array. These arrays are
+ * allocated from the first observation with a different number of channels than the handler was built for.
+ * <p>
+ * Note: {@link #getTrainingBatchSize()} is the number of experience elements in the rollout, not the size of the
+ * list returned by {@link #generateTrainingBatch()}.
+ */
+public class RolloutExperienceHandler implements ExperienceHandler<Integer, Rollout> {
+
+    @Getter
+    private final int capacity;
+
+    private INDArray[] observations;
+    @Getter(AccessLevel.PACKAGE)
+    private final int[] actions;
+    @Getter(AccessLevel.PACKAGE)
+    private final double[] rewards;
+    @Getter(AccessLevel.PACKAGE)
+    private final boolean[] terminals;
+
+    private final List<Rollout> trainingBatch;
+
+    @Getter(AccessLevel.PACKAGE)
+    private int size = 0;
+
+    // True when a training batch has been generated; the store is cleared lazily so that the rollout stays valid
+    private boolean isBatchGenerated = false;
+
+    /**
+     * @param capacity         The maximum number of experience elements in a rollout (usually nStep)
+     * @param observationShape The shape of one observation, without the batch dimension
+     */
+    public RolloutExperienceHandler(int capacity, int[] observationShape) {
+        Preconditions.checkArgument(capacity > 0, "capacity must be greater than 0, got %s", capacity);
+
+        this.capacity = capacity;
+        observations = new INDArray[]{Nd4j.create(Learning.makeShape(capacity, observationShape))};
+        actions = new int[capacity];
+        rewards = new double[capacity];
+        terminals = new boolean[capacity];
+        trainingBatch = Collections.singletonList(new Rollout(this));
+    }
+
+    @Override
+    public void addExperience(Observation observation, Integer action, double reward, boolean isTerminal) {
+        if (isBatchGenerated) {
+            reset();
+        }
+        Preconditions.checkState(size < capacity, "The rollout is full (capacity %s)", capacity);
+
+        int numChannels = observation.getNumChannels();
+        if (numChannels != observations.length) {
+            Preconditions.checkArgument(size == 0, "All the observations of a rollout must have %s channels, got %s", observations.length, numChannels);
+            allocateObservations(observation);
+        }
+
+        for (int channel = 0; channel < numChannels; ++channel) {
+            observations[channel].putRow(size, observation.getChannelData(channel));
+        }
+        actions[size] = action;
+        rewards[size] = reward;
+        terminals[size] = isTerminal;
+        ++size;
+    }
+
+    @Override
+    public void setFinalObservation(Observation observation) {
+        // Do nothing
+    }
+
+    @Override
+    public int getTrainingBatchSize() {
+        return isBatchGenerated ? 0 : size;
+    }
+
+    /**
+     * Note: the experience store is cleared the next time experience is added.
+     *
+     * @return A list containing a single {@link Rollout}
+     */
+    @Override
+    public List<Rollout> generateTrainingBatch() {
+        isBatchGenerated = true;
+        return trainingBatch;
+    }
+
+    @Override
+    public void reset() {
+        size = 0;
+        isBatchGenerated = false;
+    }
+
+    // One [capacity, channel shape] array per channel; the channel data has a batch dimension of 1
+    private void allocateObservations(Observation observation) {
+        observations = new INDArray[observation.getNumChannels()];
+        for (int channel = 0; channel < observations.length; ++channel) {
+            long[] channelShape = observation.getChannelData(channel).shape().clone();
+            channelShape[0] = capacity;
+            observations[channel] = Nd4j.create(channelShape);
+        }
+    }
+
+    int getNumChannels() {
+        return observations.length;
+    }
+
+    INDArray getObservationsView(int channel) {
+        INDArray channelObservations = observations[channel];
+        if (size == capacity) {
+            return channelObservations;
+        }
+
+        INDArrayIndex[] indexes = new INDArrayIndex[channelObservations.rank()];
+        indexes[0] = NDArrayIndex.interval(0, size);
+        for (int i = 1; i < indexes.length; ++i) {
+            indexes[i] = NDArrayIndex.all();
+        }
+        return channelObservations.get(indexes);
+    }
+}
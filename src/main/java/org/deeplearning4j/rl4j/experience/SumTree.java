@@ -0,0 +1,89 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Konduit K.K.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+package org.deeplearning4j.rl4j.experience;
+
+/**
+ * A binary tree where each node holds the sum of its children, used for proportional sampling.
+ * Updating a priority and finding the element at a given prefix sum are both O(log n).
+ */
+public class SumTree {
+
+    private final int capacity;
+    private final int numLeaves;
+    // Node 1 is the root, node i has children 2i and 2i+1, the leaves are at [numLeaves, 2 * numLeaves)
+    private final double[] nodes;
+
+    /**
+     * @param capacity The number of elements
+     */
+    public SumTree(int capacity) {
+        this.capacity = capacity;
+
+        int leaves = 1;
+        while (leaves < capacity) {
+            leaves <<= 1;
+        }
+        numLeaves = leaves;
+        nodes = new double[2 * numLeaves];
+    }
+
+    /**
+     * @return The sum of all priorities
+     */
+    public double getTotal() {
+        return nodes[1];
+    }
+
+    public double get(int index) {
+        return nodes[numLeaves + index];
+    }
+
+    /**
+     * Set the priority of an element.
+     *
+     * @param index    The index of the element, between 0 and capacity - 1
+     * @param priority A non-negative priority
+     */
+    public void set(int index, double priority) {
+        int node = numLeaves + index;
+        nodes[node] = priority;
+        for (node >>= 1; node >= 1; node >>= 1) {
+            nodes[node] = nodes[2 * node] + nodes[2 * node + 1];
+        }
+    }
+
+    /**
+     * Find the element where the cumulative sum of priorities reaches a value.
+     *
+     * @param prefixSum A value between 0 and {@link #getTotal()}
+     * @return The index of the element
+     */
+    public int find(double prefixSum) {
+        int node = 1;
+        while (node < numLeaves) {
+            int left = 2 * node;
+            if (prefixSum < nodes[left] || nodes[left + 1] == 0.0) {
+                node = left;
+            } else {
+                prefixSum -= nodes[left];
+                node = left + 1;
+            }
+        }
+
+        // Rounding errors could lead past the last element
+        return Math.min(node - numLeaves, capacity - 1);
+    }
+}
@@ -0,0 +1,42 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Konduit K.K.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+package org.deeplearning4j.rl4j.learning.advantage;
+
+/**
+ * Computes the critic targets and the advantages of a trajectory for the actor-critic algorithms.
+ * <p>
+ * The trajectory is read from primitive arrays; element t of the trajectory is at index offset + t * stride.
+ * This allows an implementation to process, in place, a rollout of several environments stored step-major.
+ */
+public interface AdvantageEstimator {
+
+    /**
+     * Compute the critic targets and the advantages, in a single backward pass over the trajectory.
+     *
+     * @param rewards        The rewards r(t)
+     * @param values         The values V(s(t)) estimated by the critic
+     * @param terminals      True if the episode ended after the action of element t. Nothing is bootstrapped past such an element.
+     * @param bootstrapValue The value of the observation that follows the last element of the trajectory
+     * @param offset         The index of the first element in the arrays
+     * @param stride         The distance between two consecutive elements in the arrays
+     * @param length         The number of elements in the trajectory
+     * @param returns        Receives the critic targets, at the same indexes as the input
+     * @param advantages     Receives the advantages, at the same indexes as the input
+     */
+    void estimate(double[] rewards, double[] values, boolean[] terminals, double bootstrapValue,
+                  int offset, int stride, int length,
+                  double[] returns, double[] advantages);
+}
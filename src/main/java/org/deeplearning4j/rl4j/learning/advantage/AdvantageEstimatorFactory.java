@@ -0,0 +1,41 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Konduit K.K.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+package org.deeplearning4j.rl4j.learning.advantage;
+
+import org.deeplearning4j.rl4j.learning.configuration.LearningConfiguration;
+
+/**
+ * Builds the {@link AdvantageEstimator} selected in a {@link LearningConfiguration}
+ */
+public class AdvantageEstimatorFactory {
+
+    private AdvantageEstimatorFactory() {
+    }
+
+    public static AdvantageEstimator create(LearningConfiguration configuration) {
+        switch (configuration.getAdvantageEstimation()) {
+            case GAE:
+                return new GeneralizedAdvantageEstimator(configuration.getGamma(), configuration.getLambda());
+
+            case TD_LAMBDA:
+                return new TDLambdaEstimator(configuration.getGamma(), configuration.getLambda());
+
+            case N_STEP:
+            default:
+                return new NStepReturnEstimator(configuration.getGamma());
+        }
+    }
+}
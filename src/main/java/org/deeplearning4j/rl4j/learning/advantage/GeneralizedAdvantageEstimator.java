@@ -0,0 +1,58 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Konduit K.K.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+package org.deeplearning4j.rl4j.learning.advantage;
+
+/**
+ * Generalized Advantage Estimation (https://arxiv.org/abs/1506.02438):
+ * <p>
+ * delta(t) = r(t) + gamma * V(s(t+1)) - V(s(t)) and A(t) = delta(t) + gamma * lambda * A(t+1)
+ * <p>
+ * The critic targets are A(t) + V(s(t)). A lambda of 1 gives the n-step returns and a lambda of 0 gives
+ * the one-step TD errors; values in between trade variance for bias.
+ */
+public class GeneralizedAdvantageEstimator implements AdvantageEstimator {
+
+    private final double gamma;
+    private final double lambda;
+
+    public GeneralizedAdvantageEstimator(double gamma, double lambda) {
+        this.gamma = gamma;
+        this.lambda = lambda;
+    }
+
+    @Override
+    public void estimate(double[] rewards, double[] values, boolean[] terminals, double bootstrapValue,
+                         int offset, int stride, int length,
+                         double[] returns, double[] advantages) {
+        double gammaLambda = gamma * lambda;
+        double nextValue = bootstrapValue;
+        double nextAdvantage = 0.0;
+        for (int t = length - 1, idx = offset + t * stride; t >= 0; --t, idx -= stride) {
+            if (terminals[idx]) {
+                nextValue = 0.0;
+                nextAdvantage = 0.0;
+            }
+
+            double value = values[idx];
+            double advantage = rewards[idx] + gamma * nextValue - value + gammaLambda * nextAdvantage;
+            advantages[idx] = advantage;
+            returns[idx] = advantage + value;
+
+            nextValue = value;
+            nextAdvantage = advantage;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Konduit K.K.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+package org.deeplearning4j.rl4j.learning.advantage;
+
+/**
+ * The discounted n-step returns, as in the original A3C paper (https://arxiv.org/abs/1602.01783):
+ * <p>
+ * R(t) = r(t) + gamma * R(t+1) and A(t) = R(t) - V(s(t))
+ */
+public class NStepReturnEstimator implements AdvantageEstimator {
+
+    private final double gamma;
+
+    public NStepReturnEstimator(double gamma) {
+        this.gamma = gamma;
+    }
+
+    @Override
+    public void estimate(double[] rewards, double[] values, boolean[] terminals, double bootstrapValue,
+                         int offset, int stride, int length,
+                         double[] returns, double[] advantages) {
+        double nextReturn = bootstrapValue;
+        for (int t = length - 1, idx = offset + t * stride; t >= 0; --t, idx -= stride) {
+            if (terminals[idx]) {
+                nextReturn = 0.0;
+            }
+
+            double value = rewards[idx] + gamma * nextReturn;
+            returns[idx] = value;
+            advantages[idx] = value - values[idx];
+            nextReturn = value;
+        }
+    }
+}
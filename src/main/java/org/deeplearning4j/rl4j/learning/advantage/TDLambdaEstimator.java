@@ -0,0 +1,62 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Konduit K.K.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+package org.deeplearning4j.rl4j.learning.advantage;
+
+/**
+ * The TD(lambda) returns (Sutton &amp; Barto, 12.1) as the critic targets, with the n-step advantages for the actor:
+ * <p>
+ * G(t) = r(t) + gamma * ((1 - lambda) * V(s(t+1)) + lambda * G(t+1)), R(t) = r(t) + gamma * R(t+1) and
+ * A(t) = R(t) - V(s(t))
+ * <p>
+ * The critic learns from the lower-variance lambda-returns while the policy gradient keeps the advantages of the
+ * n-step returns, which only depend on the critic through the bootstrap value. To use the lambda-returns for both,
+ * use {@link GeneralizedAdvantageEstimator}: its advantages plus the values are the lambda-returns.
+ */
+public class TDLambdaEstimator implements AdvantageEstimator {
+
+    private final double gamma;
+    private final double lambda;
+
+    public TDLambdaEstimator(double gamma, double lambda) {
+        this.gamma = gamma;
+        this.lambda = lambda;
+    }
+
+    @Override
+    public void estimate(double[] rewards, double[] values, boolean[] terminals, double bootstrapValue,
+                         int offset, int stride, int length,
+                         double[] returns, double[] advantages) {
+        double nextValue = bootstrapValue;
+        double nextLambdaReturn = bootstrapValue;
+        double nextReturn = bootstrapValue;
+        for (int t = length - 1, idx = offset + t * stride; t >= 0; --t, idx -= stride) {
+            if (terminals[idx]) {
+                nextValue = 0.0;
+                nextLambdaReturn = 0.0;
+                nextReturn = 0.0;
+            }
+
+            double lambdaReturn = rewards[idx] + gamma * ((1.0 - lambda) * nextValue + lambda * nextLambdaReturn);
+            double nStepReturn = rewards[idx] + gamma * nextReturn;
+            returns[idx] = lambdaReturn;
+            advantages[idx] = nStepReturn - values[idx];
+
+            nextValue = values[idx];
+            nextLambdaReturn = lambdaReturn;
+            nextReturn = nStepReturn;
+        }
+    }
+}
@@ -17,6 +17,7 @@
 
 package org.deeplearning4j.rl4j.learning.async;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.deeplearning4j.nn.gradient.Gradient;
@@ -24,7 +25,9 @@ import org.deeplearning4j.rl4j.learning.configuration.LearningConfiguration;
 import org.deeplearning4j.rl4j.network.NeuralNet;
 
 import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * @author rubenfiszel (ruben.fiszel@epfl.ch) on 8/5/16.
@@ -46,8 +49,12 @@ import java.util.concurrent.locks.ReentrantLock;
  * <p>
  * This is similar to RMSProp with shared g and momentum
  * <p>
- * When Hogwild! is implemented, this could be replaced by a simple data
- * structure
+ * If the gradient coalescing window of the configuration is greater than 1, the gradients of several worker updates
+ * are summed and applied as a single update with the combined batch size. The accumulated gradients are applied when
+ * the window is full, or when the oldest of them is older than the maximum coalescing latency. The latency is checked
+ * when a worker applies a gradient or asks for the target; no background thread is used.
+ * <p>
+ * See {@link HogwildAsyncGlobal} for a lock-free implementation
  */
 @Slf4j
 public class AsyncGlobal<NN extends NeuralNet> implements IAsyncGlobal<NN> {
@@ -56,7 +63,22 @@ public class AsyncGlobal<NN extends NeuralNet> implements IAsyncGlobal<NN> {
     final private LearningConfiguration configuration;
     @Getter
     private final Lock updateLock;
-    private final NN target;
+
+    /**
+     * The target network is double-buffered: a new version is copied into the buffer that is not published and
+     * is then published, so that the worker threads can keep reading the published one without holding updateLock.
+     */
+    private final NN[] targetBuffers;
+    private final ReadWriteLock[] targetBufferLocks;
+    private volatile TargetSnapshot<NN> targetSnapshot;
+    private int publishedBufferIndex = 0;
+
+    /**
+     * True when the target network must be updated from the current network. The copy is deferred until a worker
+     * thread asks for the target so that several updates in a row only cause a single copy.
+     */
+    private volatile boolean isTargetStale = false;
+
     /**
      * The number of times the gradient has been updated by worker threads
      */
@@ -66,10 +88,26 @@ public class AsyncGlobal<NN extends NeuralNet> implements IAsyncGlobal<NN> {
     @Getter
     private int stepCount;
 
+    private final GradientAccumulator gradientAccumulator = new GradientAccumulator();
+
+    /**
+     * True when some worker gradients have been accumulated but not yet applied to the global network
+     */
+    private volatile boolean hasPendingGradients = false;
+
+    /**
+     * The value of workerUpdateCount when the global network was last updated. Also used as the version of the
+     * published target snapshots.
+     */
+    @Getter(AccessLevel.PACKAGE)
+    private int appliedWorkerUpdateCount = 0;
+
     public AsyncGlobal(NN initial, LearningConfiguration configuration) {
         this.current = initial;
-        target = (NN) initial.clone();
         this.configuration = configuration;
+        targetBuffers = (NN[]) new NeuralNet[]{initial.replicateForInference(), initial.replicateForInference()};
+        targetBufferLocks = new ReadWriteLock[]{new ReentrantReadWriteLock(), new ReentrantReadWriteLock()};
+        targetSnapshot = new TargetSnapshot<>(0, targetBuffers[0], targetBufferLocks[0].readLock());
 
         // This is used to sync between
         updateLock = new ReentrantLock();
@@ -88,19 +126,21 @@ public class AsyncGlobal<NN extends NeuralNet> implements IAsyncGlobal<NN> {
         try {
             updateLock.lock();
 
-            current.applyGradient(gradient, nstep);
-
             stepCount += nstep;
             workerUpdateCount++;
 
-            int targetUpdateFrequency = configuration.getLearnerUpdateFrequency();
+            if (configuration.getGradientCoalescingWindow() <= 1) {
+                current.applyGradient(gradient, nstep);
+                onGlobalUpdate();
+                return;
+            }
 
-            // If we have a target update frequency, this means we only want to update the workers after a certain number of async updates
-            // This can lead to more stable training
-            if (targetUpdateFrequency != -1 && workerUpdateCount % targetUpdateFrequency == 0) {
-                log.info("Updating target network at updates={} steps={}", workerUpdateCount, stepCount);
+            gradientAccumulator.add(gradient, nstep);
+            hasPendingGradients = true;
+            if (gradientAccumulator.getCount() >= configuration.getGradientCoalescingWindow() || isTrainingComplete()) {
+                applyAccumulatedGradients();
             } else {
-                target.copy(current);
+                applyAccumulatedGradientsIfExpired();
             }
         } finally {
             updateLock.unlock();
@@ -108,14 +148,82 @@ public class AsyncGlobal<NN extends NeuralNet> implements IAsyncGlobal<NN> {
 
     }
 
+    // Must be called while holding updateLock
+    private void applyAccumulatedGradientsIfExpired() {
+        if (gradientAccumulator.getCount() > 0
+                && System.currentTimeMillis() - gradientAccumulator.getFirstGradientTime() >= configuration.getGradientCoalescingMaxLatency()) {
+            applyAccumulatedGradients();
+        }
+    }
+
+    // Must be called while holding updateLock
+    private void applyAccumulatedGradients() {
+        current.applyGradient(gradientAccumulator.get(), gradientAccumulator.getBatchSize());
+        gradientAccumulator.clear();
+        hasPendingGradients = false;
+        onGlobalUpdate();
+    }
+
+    // Must be called while holding updateLock, after the global network has been updated
+    private void onGlobalUpdate() {
+        int targetUpdateFrequency = configuration.getLearnerUpdateFrequency();
+
+        // If we have a target update frequency, this means we only want to update the workers after a certain number of async updates
+        // This can lead to more stable training
+        if (targetUpdateFrequency == -1) {
+            isTargetStale = true;
+        } else if (workerUpdateCount / targetUpdateFrequency != appliedWorkerUpdateCount / targetUpdateFrequency) {
+            log.info("Updating target network at updates={} steps={}", workerUpdateCount, stepCount);
+            isTargetStale = true;
+        }
+
+        appliedWorkerUpdateCount = workerUpdateCount;
+    }
+
+    @Override
+    public void terminate() {
+        // Do nothing
+    }
+
     @Override
     public NN getTarget() {
+        return getTargetSnapshot().getNetwork();
+    }
+
+    @Override
+    public TargetSnapshot<NN> getTargetSnapshot() {
+        if (!isTargetStale && !hasPendingGradients) {
+            return targetSnapshot;
+        }
+
         try {
             updateLock.lock();
-            return target;
+            applyAccumulatedGradientsIfExpired();
+            if (isTargetStale) {
+                publishTarget();
+            }
+            return targetSnapshot;
         } finally {
             updateLock.unlock();
         }
     }
 
+    // Must be called while holding updateLock
+    private void publishTarget() {
+        int backBufferIndex = 1 - publishedBufferIndex;
+
+        // Wait for the worker threads that may still be copying from this buffer (published two versions ago)
+        Lock writeLock = targetBufferLocks[backBufferIndex].writeLock();
+        writeLock.lock();
+        try {
+            targetBuffers[backBufferIndex].copy(current);
+        } finally {
+            writeLock.unlock();
+        }
+
+        publishedBufferIndex = backBufferIndex;
+        targetSnapshot = new TargetSnapshot<>(appliedWorkerUpdateCount, targetBuffers[backBufferIndex], targetBufferLocks[backBufferIndex].readLock());
+        isTargetStale = false;
+    }
+
 }
@@ -31,6 +31,11 @@ import org.deeplearning4j.rl4j.space.ActionSpace;
 import org.deeplearning4j.rl4j.space.Encodable;
 import org.nd4j.linalg.factory.Nd4j;
 
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
 /**
  * The entry point for async training. This class will start a number ({@link AsyncQLearningConfiguration#getNumThreads()
  * configuration.getNumThread()}) of worker threads. Then, it will monitor their progress at regular intervals
@@ -55,6 +60,19 @@ public abstract class AsyncLearning<OBSERVATION extends Encodable, ACTION, ACTIO
     @Setter
     private int progressMonitorFrequency = 20000;
 
+    /**
+     * The executor that runs the workers, for example a virtual-thread-per-task executor when the environments are
+     * I/O bound, or a fixed pool smaller than the number of workers (see
+     * {@link LearningConfiguration#getWorkerEpochsPerTask()}). It is not shut down after the training.
+     * <p>
+     * If null, a pool with one thread per worker is created for each training
+     */
+    @Getter
+    @Setter
+    private ExecutorService workerExecutor = null;
+
+    private CountDownLatch runningWorkers = null;
+
     /**
      * Add a {@link TrainingListener} listener at the end of the listener list.
      *
@@ -79,12 +97,18 @@ public abstract class AsyncLearning<OBSERVATION extends Encodable, ACTION, ACTIO
         return getAsyncGlobal().isTrainingComplete();
     }
 
-    private void launchThreads() {
-        for (int i = 0; i < getConfiguration().getNumThreads(); i++) {
-            Thread t = newThread(i, i % Nd4j.getAffinityManager().getNumberOfDevices());
-            t.start();
+    private ExecutorService launchThreads() {
+        int numWorkers = getConfiguration().getNumThreads();
+        ExecutorService executor = workerExecutor != null ? workerExecutor : Executors.newFixedThreadPool(numWorkers);
+
+        runningWorkers = new CountDownLatch(numWorkers);
+        for (int i = 0; i < numWorkers; i++) {
+            AsyncThread worker = newThread(i, i % Nd4j.getAffinityManager().getNumberOfDevices());
+            executor.execute(new WorkerTask(worker, executor, getConfiguration().getWorkerEpochsPerTask()));
         }
         log.info("Threads launched.");
+
+        return executor;
     }
 
     /**
@@ -117,24 +141,37 @@ public abstract class AsyncLearning<OBSERVATION extends Encodable, ACTION, ACTIO
 
         canContinue = listeners.notifyTrainingStarted();
         if (canContinue) {
-            launchThreads();
+            ExecutorService executor = launchThreads();
             monitorTraining();
+
+            if (canContinue) {
+                awaitWorkers();
+            }
+            if (executor != workerExecutor) {
+                executor.shutdown();
+            }
         }
 
-        listeners.notifyTrainingFinished();
+        try {
+            getAsyncGlobal().terminate();
+        } finally {
+            listeners.notifyTrainingFinished();
+        }
     }
 
     protected void monitorTraining() {
         try {
             monitorThread = Thread.currentThread();
-            while (canContinue && !isTrainingComplete()) {
+            while (canContinue && !isTrainingComplete() && runningWorkers.getCount() > 0) {
                 canContinue = listeners.notifyTrainingProgress(this);
                 if (!canContinue) {
                     return;
                 }
 
                 synchronized (this) {
-                    wait(progressMonitorFrequency);
+                    if (runningWorkers.getCount() > 0) {
+                        wait(progressMonitorFrequency);
+                    }
                 }
             }
         } catch (InterruptedException e) {
@@ -143,6 +180,26 @@ public abstract class AsyncLearning<OBSERVATION extends Encodable, ACTION, ACTIO
         monitorThread = null;
     }
 
+    private void onWorkerStopped() {
+        runningWorkers.countDown();
+        if (runningWorkers.getCount() == 0) {
+            // Wake up the monitor
+            synchronized (this) {
+                notifyAll();
+            }
+        }
+    }
+
+    // Wait for the workers to finish their current epoch once the training is complete
+    private void awaitWorkers() {
+        try {
+            runningWorkers.await();
+        } catch (InterruptedException e) {
+            log.error("Training interrupted.", e);
+            Thread.currentThread().interrupt();
+        }
+    }
+
     /**
      * Force the immediate termination of the learning. All learning threads, the AsyncGlobal thread and the monitor thread will be terminated.
      */
@@ -156,4 +213,41 @@ public abstract class AsyncLearning<OBSERVATION extends Encodable, ACTION, ACTIO
             }
         }
     }
+
+    /**
+     * Runs a worker on the executor. If the worker gives its thread back after a number of epochs, the task submits
+     * itself again to continue later.
+     */
+    private class WorkerTask implements Runnable {
+        private final AsyncThread worker;
+        private final ExecutorService executor;
+        private final int epochsPerTask;
+
+        private WorkerTask(AsyncThread worker, ExecutorService executor, int epochsPerTask) {
+            this.worker = worker;
+            this.executor = executor;
+            this.epochsPerTask = epochsPerTask;
+        }
+
+        @Override
+        public void run() {
+            boolean canRunMore = false;
+            try {
+                canRunMore = worker.runEpochs(epochsPerTask);
+                if (canRunMore) {
+                    executor.execute(this);
+                }
+            } catch (RejectedExecutionException e) {
+                canRunMore = false;
+                log.warn("ThreadNum-{} stopped: the worker executor rejected the task.", worker.getThreadNumber());
+            } catch (RuntimeException e) {
+                canRunMore = false;
+                log.error("ThreadNum-" + worker.getThreadNumber() + " failed.", e);
+            } finally {
+                if (!canRunMore) {
+                    onWorkerStopped();
+                }
+            }
+        }
+    }
 }
@@ -42,18 +42,22 @@ import org.deeplearning4j.rl4j.util.LegacyMDPWrapper;
 import org.nd4j.linalg.factory.Nd4j;
 
 /**
- * This represent a local thread that explore the environment
+ * This represent a local worker that explore the environment
  * and calculate a gradient to enqueue to the global thread/model
  * <p>
  * It has its own version of a model that it syncs at the start of every
  * sub epoch
+ * <p>
+ * The worker is not bound to a thread: {@link #runEpochs(int)} can be called repeatedly, from different threads (but
+ * never concurrently), each call continuing where the previous one stopped. {@link AsyncLearning} runs the workers
+ * on an {@link java.util.concurrent.ExecutorService}.
  *
  * @author rubenfiszel (ruben.fiszel@epfl.ch) on 8/5/16.
  * @author Alexandre Boulanger
  */
 @Slf4j
 public abstract class AsyncThread<OBSERVATION extends Encodable, ACTION, ACTION_SPACE extends ActionSpace<ACTION>, NN extends NeuralNet>
-        extends Thread implements IEpochTrainer {
+        implements Runnable, IEpochTrainer {
 
     @Getter
     protected final int deviceNum;
@@ -91,6 +95,7 @@ public abstract class AsyncThread<OBSERVATION extends Encodable, ACTION, ACTION_
     @Getter
     private IHistoryProcessor historyProcessor;
     private final boolean isEpisodeStarted = false;
+    private RunContext context = null;
 
     public AsyncThread(MDP<OBSERVATION, ACTION, ACTION_SPACE> mdp, TrainingListenerList listeners, int threadNumber, int deviceNum) {
         this.mdp = new LegacyMDPWrapper<OBSERVATION, ACTION, ACTION_SPACE>(mdp, null);
@@ -127,8 +132,8 @@ public abstract class AsyncThread<OBSERVATION extends Encodable, ACTION, ACTION_
     }
 
     /**
-     * This method will start the worker thread<p>
-     * The thread will stop when:<br>
+     * This method will run the worker until it stops<p>
+     * The worker will stop when:<br>
      * - The AsyncGlobal thread terminates or reports that the training is complete
      * (see {@link AsyncGlobal#isTrainingComplete()}). In such case, the currently running epoch will still be handled normally and
      * events will also be fired normally.<br>
@@ -149,31 +154,49 @@ public abstract class AsyncThread<OBSERVATION extends Encodable, ACTION, ACTION_
      */
     @Override
     public void run() {
-        RunContext context = new RunContext();
+        runEpochs(-1);
+    }
+
+    /**
+     * Run the worker for a number of epochs, continuing from where the previous call stopped. See {@link #run()} for
+     * when the worker stops.
+     *
+     * @param maxEpochs The maximum number of epochs to run, or -1 to run until the worker stops
+     * @return false if the worker has stopped, true if it can run more epochs
+     */
+    public boolean runEpochs(int maxEpochs) {
         Nd4j.getAffinityManager().unsafeSetDevice(deviceNum);
 
-        log.info("ThreadNum-" + threadNumber + " Started!");
+        if (context == null) {
+            context = new RunContext();
+            log.info("ThreadNum-" + threadNumber + " Started!");
+        }
 
-        while (!getAsyncGlobal().isTrainingComplete()) {
+        for (int i = 0; maxEpochs == -1 || i < maxEpochs; ++i) {
+            if (getAsyncGlobal().isTrainingComplete()) {
+                return false;
+            }
 
             if (episodeComplete) {
                 startEpisode(context);
             }
 
             if (!startEpoch(context)) {
-                break;
+                return false;
             }
 
             episodeComplete = handleTraining(context);
 
             if (!finishEpoch(context)) {
-                break;
+                return false;
             }
 
             if (episodeComplete) {
                 finishEpisode(context);
             }
         }
+
+        return true;
     }
 
     private boolean finishEpoch(RunContext context) {
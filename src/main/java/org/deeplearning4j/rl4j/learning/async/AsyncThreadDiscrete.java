@@ -22,10 +22,14 @@ import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import org.deeplearning4j.gym.StepReply;
+import org.deeplearning4j.nn.gradient.Gradient;
 import org.deeplearning4j.rl4j.experience.ExperienceHandler;
-import org.deeplearning4j.rl4j.experience.StateActionExperienceHandler;
+import org.deeplearning4j.rl4j.experience.Rollout;
+import org.deeplearning4j.rl4j.experience.RolloutExperienceHandler;
 import org.deeplearning4j.rl4j.learning.IHistoryProcessor;
+import org.deeplearning4j.rl4j.learning.advantage.AdvantageEstimatorFactory;
 import org.deeplearning4j.rl4j.learning.async.a3c.discrete.AdvantageActorCriticUpdateAlgorithm;
+import org.deeplearning4j.rl4j.learning.async.distributed.GradientCodecFactory;
 import org.deeplearning4j.rl4j.learning.configuration.LearningConfiguration;
 import org.deeplearning4j.rl4j.learning.listener.TrainingListenerList;
 import org.deeplearning4j.rl4j.mdp.MDP;
@@ -34,9 +38,11 @@ import org.deeplearning4j.rl4j.network.ac.IActorCritic;
 import org.deeplearning4j.rl4j.observation.Observation;
 import org.deeplearning4j.rl4j.policy.ACPolicy;
 import org.deeplearning4j.rl4j.policy.IPolicy;
+import org.deeplearning4j.rl4j.policy.InferenceServerACPolicy;
 import org.deeplearning4j.rl4j.policy.Policy;
 import org.deeplearning4j.rl4j.space.DiscreteSpace;
 import org.deeplearning4j.rl4j.space.Encodable;
+import org.nd4j.common.base.Preconditions;
 import org.nd4j.linalg.api.rng.Random;
 import org.nd4j.linalg.factory.Nd4j;
 
@@ -56,6 +62,11 @@ public class AsyncThreadDiscrete<OBSERVATION extends Encodable, NN extends Neura
     @Getter
     private final NN current;
 
+    /**
+     * The version of the target network that has last been copied into current
+     */
+    private long currentTargetVersion = -1;
+
     final private Random rnd;
 
     @Setter(AccessLevel.PROTECTED)
@@ -64,7 +75,20 @@ public class AsyncThreadDiscrete<OBSERVATION extends Encodable, NN extends Neura
     // TODO: Make it configurable with a builder
     @Setter(AccessLevel.PROTECTED)
     @Getter
-    private ExperienceHandler experienceHandler = new StateActionExperienceHandler();
+    private ExperienceHandler<Integer, Rollout> experienceHandler;
+
+    /**
+     * If set, the actions are selected with the batched inference of the server instead of with current
+     */
+    @Setter
+    @Getter
+    private InferenceServer inferenceServer;
+
+    /**
+     * Encodes the gradients before they are given to the global, when a gradient compression is configured
+     */
+    @Getter
+    private final GradientCompressor gradientCompressor;
 
     public AsyncThreadDiscrete(
                                MDP<OBSERVATION, Integer, DiscreteSpace> mdp,
@@ -77,7 +101,7 @@ public class AsyncThreadDiscrete<OBSERVATION extends Encodable, NN extends Neura
         this.asyncGlobal = asyncGlobal;
         this.configuration = configuration;
         synchronized (asyncGlobal) {
-            current = (NN) asyncGlobal.getTarget().clone();
+            current = (NN) asyncGlobal.getTarget().replicateForInference();
         }
         Long seed = configuration.getSeed();
         rnd = Nd4j.getRandom();
@@ -85,26 +109,46 @@ public class AsyncThreadDiscrete<OBSERVATION extends Encodable, NN extends Neura
             rnd.setSeed(seed + threadNumber);
         }
 
+        if (configuration.getGradientCompression() == LearningConfiguration.GradientCompression.NONE) {
+            gradientCompressor = null;
+        } else {
+            Preconditions.checkArgument(asyncGlobal instanceof IEncodedGradientGlobal,
+                    "The gradient compression is only supported by the QUEUED global update mode, got %s", asyncGlobal.getClass().getSimpleName());
+            gradientCompressor = new GradientCompressor(GradientCodecFactory.create(configuration));
+        }
+
         setUpdateAlgorithm(buildUpdateAlgorithm());
+        setExperienceHandler(buildExperienceHandler());
     }
 
     protected Policy<Integer> getPolicy(IActorCritic net) {
+        if (inferenceServer != null) {
+            return new InferenceServerACPolicy(net, inferenceServer, rnd);
+        }
         return new ACPolicy(net, rnd);
     }
 
     /**
-     * calc the gradients based on the n-step rewards
+     * calc the gradients based on the advantages estimated with the configured {@link org.deeplearning4j.rl4j.learning.configuration.LearningConfiguration.AdvantageEstimation}
      */
 
     protected UpdateAlgorithm<NN> buildUpdateAlgorithm() {
-        int[] shape = getHistoryProcessor() == null ? getMdp().getObservationSpace().getShape() : getHistoryProcessor().getConf().getShape();
-        return (UpdateAlgorithm<NN>) new AdvantageActorCriticUpdateAlgorithm(asyncGlobal.getTarget().isRecurrent(), shape, getMdp().getActionSpace().getSize(), configuration.getGamma());
+        return (UpdateAlgorithm<NN>) new AdvantageActorCriticUpdateAlgorithm(asyncGlobal.getTarget().isRecurrent(), getObservationShape(), getMdp().getActionSpace().getSize(), AdvantageEstimatorFactory.create(configuration));
+    }
+
+    protected ExperienceHandler<Integer, Rollout> buildExperienceHandler() {
+        return new RolloutExperienceHandler(configuration.getNStep(), getObservationShape());
+    }
+
+    private int[] getObservationShape() {
+        return getHistoryProcessor() == null ? getMdp().getObservationSpace().getShape() : getHistoryProcessor().getConf().getShape();
     }
 
     @Override
     public void setHistoryProcessor(IHistoryProcessor historyProcessor) {
         super.setHistoryProcessor(historyProcessor);
         updateAlgorithm = buildUpdateAlgorithm();
+        experienceHandler = buildExperienceHandler();
     }
 
     @Override
@@ -123,7 +167,11 @@ public class AsyncThreadDiscrete<OBSERVATION extends Encodable, NN extends Neura
      */
     public SubEpochReturn trainSubEpoch(Observation sObs, int trainingSteps) {
 
-        current.copy(getAsyncGlobal().getTarget());
+        TargetSnapshot<NN> targetSnapshot = getAsyncGlobal().getTargetSnapshot();
+        if (targetSnapshot.getVersion() != currentTargetVersion) {
+            targetSnapshot.copyTo(current);
+            currentTargetVersion = targetSnapshot.getVersion();
+        }
 
         Observation obs = sObs;
         IPolicy<Integer> policy = getPolicy((IActorCritic) current);
@@ -163,7 +211,12 @@ public class AsyncThreadDiscrete<OBSERVATION extends Encodable, NN extends Neura
 
         int experienceSize = experienceHandler.getTrainingBatchSize();
 
-        getAsyncGlobal().applyGradient(updateAlgorithm.computeGradients(current, experienceHandler.generateTrainingBatch()), experienceSize);
+        Gradient[] gradient = updateAlgorithm.computeGradients(current, experienceHandler.generateTrainingBatch().get(0));
+        if (gradientCompressor != null) {
+            ((IEncodedGradientGlobal) getAsyncGlobal()).applyGradient(gradientCompressor.compress(gradient), experienceSize);
+        } else {
+            getAsyncGlobal().applyGradient(gradient, experienceSize);
+        }
 
         return new SubEpochReturn(experienceSize, obs, reward, current.getLatestScore(), episodeComplete);
     }
@@ -0,0 +1,58 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Konduit K.K.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.deeplearning4j.rl4j.learning.async;
+
+import lombok.Getter;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+
+/**
+ * The gradients of a worker, encoded by a {@link org.deeplearning4j.rl4j.learning.async.distributed.GradientCodec},
+ * with the {@link GradientLayout} of the gradients they decode into.
+ * <p>
+ * The buffer grows as needed and is reused after {@link #reset()}. Not thread-safe.
+ */
+public class EncodedGradient extends ByteArrayOutputStream {
+
+    @Getter
+    private GradientLayout layout;
+
+    /**
+     * Clear the encoded bytes; the next gradients encoded in this buffer have the given layout
+     */
+    public void reset(GradientLayout layout) {
+        reset();
+        this.layout = layout;
+    }
+
+    /**
+     * Replace the content of this buffer with a copy of another one
+     */
+    public void copyFrom(EncodedGradient other) {
+        reset(other.layout);
+        write(other.buf, 0, other.count);
+    }
+
+    /**
+     * @return A stream over the encoded bytes, valid until the buffer is modified
+     */
+    public DataInputStream toInputStream() {
+        return new DataInputStream(new ByteArrayInputStream(buf, 0, count));
+    }
+}
@@ -0,0 +1,82 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Konduit K.K.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.deeplearning4j.rl4j.learning.async;
+
+import lombok.Getter;
+import org.deeplearning4j.nn.gradient.Gradient;
+
+/**
+ * Sums the gradients of several worker updates so that they can be applied as a single optimizer step.
+ * <p>
+ * The accumulator arrays are allocated once, with the {@link GradientLayout} of the first gradient.
+ * <p>
+ * Not thread-safe.
+ */
+class GradientAccumulator {
+
+    private Gradient[] accumulated;
+
+    /**
+     * The number of gradients summed since the last {@link #clear()}
+     */
+    @Getter
+    private int count = 0;
+
+    /**
+     * The combined batch size of the gradients summed since the last {@link #clear()}
+     */
+    @Getter
+    private int batchSize = 0;
+
+    /**
+     * The time, in milliseconds, at which the first gradient since the last {@link #clear()} was added
+     */
+    @Getter
+    private long firstGradientTime;
+
+    public void add(Gradient[] gradient, int nstep) {
+        if (accumulated == null) {
+            accumulated = GradientLayout.of(gradient).allocate();
+        }
+
+        for (int i = 0; i < gradient.length; ++i) {
+            if (count == 0) {
+                accumulated[i].gradient().assign(gradient[i].gradient());
+            } else {
+                accumulated[i].gradient().addi(gradient[i].gradient());
+            }
+        }
+
+        if (count == 0) {
+            firstGradientTime = System.currentTimeMillis();
+        }
+        ++count;
+        batchSize += nstep;
+    }
+
+    /**
+     * @return The sum of the gradients; only valid until the next call to {@link #add(Gradient[], int)}
+     */
+    public Gradient[] get() {
+        return accumulated;
+    }
+
+    public void clear() {
+        count = 0;
+        batchSize = 0;
+    }
+}
@@ -0,0 +1,84 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Konduit K.K.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.deeplearning4j.rl4j.learning.async;
+
+import org.deeplearning4j.nn.gradient.Gradient;
+import org.deeplearning4j.rl4j.learning.async.distributed.GradientCodec;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Encodes the gradients of a worker thread with a {@link GradientCodec}. The encoded gradients are given to
+ * {@link IEncodedGradientGlobal#applyGradient(EncodedGradient, int)}, and the global decodes them on its learner thread.
+ * <p>
+ * Not thread-safe; each worker thread has its own.
+ */
+public class GradientCompressor {
+
+    private final GradientCodec codec;
+    private final EncodedGradient encoded = new EncodedGradient();
+    private final DataOutputStream encodedOutput = new DataOutputStream(encoded);
+    private GradientLayout layout = null;
+
+    private long encodedBytes = 0;
+    private long uncompressedBytes = 0;
+
+    public GradientCompressor(GradientCodec codec) {
+        this.codec = codec;
+    }
+
+    /**
+     * @param gradient The gradients computed by the worker
+     * @return The encoded gradients. Reused by the next call.
+     */
+    public EncodedGradient compress(Gradient[] gradient) {
+        if (layout == null) {
+            layout = GradientLayout.of(gradient);
+        }
+
+        try {
+            encoded.reset(layout);
+            codec.encode(gradient, encodedOutput);
+            encodedOutput.flush();
+        } catch (IOException e) {
+            // Only in-memory streams are used
+            throw new RuntimeException(e);
+        }
+
+        encodedBytes += encoded.size();
+        for (int i = 0; i < layout.getNumNetworks(); ++i) {
+            uncompressedBytes += layout.getLength(i) * Float.BYTES;
+        }
+
+        return encoded;
+    }
+
+    /**
+     * @return The total size of the encoded gradients, in bytes
+     */
+    public long getEncodedBytes() {
+        return encodedBytes;
+    }
+
+    /**
+     * @return The total size of the gradients as 32-bit floats, in bytes
+     */
+    public long getUncompressedBytes() {
+        return uncompressedBytes;
+    }
+}
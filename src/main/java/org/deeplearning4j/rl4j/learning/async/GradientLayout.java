@@ -0,0 +1,226 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Konduit K.K.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.deeplearning4j.rl4j.learning.async;
+
+import org.deeplearning4j.nn.gradient.DefaultGradient;
+import org.deeplearning4j.nn.gradient.Gradient;
+import org.nd4j.common.base.Preconditions;
+import org.nd4j.linalg.api.buffer.DataType;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.indexing.NDArrayIndex;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The structure of the gradients of a network: for each underlying network, the flat gradient array and the position
+ * of each variable's gradient in it.
+ * <p>
+ * Used to allocate gradients that can be passed to {@link org.deeplearning4j.rl4j.network.NeuralNet#applyGradient(Gradient[], int)}
+ * without being computed by the network: the per-variable gradients are views of the flat gradient, like in the
+ * gradients computed by the network, so that the updater sees the same values through both. The layout can be
+ * written to a stream to allocate the gradients in another process.
+ */
+public class GradientLayout {
+
+    private final NetworkLayout[] networks;
+
+    private GradientLayout(NetworkLayout[] networks) {
+        this.networks = networks;
+    }
+
+    /**
+     * @param gradient Gradients computed by a network
+     * @return The layout of the gradients
+     */
+    public static GradientLayout of(Gradient[] gradient) {
+        NetworkLayout[] networks = new NetworkLayout[gradient.length];
+        for (int i = 0; i < gradient.length; ++i) {
+            networks[i] = NetworkLayout.of(gradient[i]);
+        }
+        return new GradientLayout(networks);
+    }
+
+    /**
+     * @return The number of underlying networks
+     */
+    public int getNumNetworks() {
+        return networks.length;
+    }
+
+    /**
+     * @return The length of the flat gradient of an underlying network
+     */
+    public long getLength(int networkIndex) {
+        return networks[networkIndex].length;
+    }
+
+    /**
+     * @return New, uninitialized, gradients with this layout
+     */
+    public Gradient[] allocate() {
+        Gradient[] result = new Gradient[networks.length];
+        for (int i = 0; i < networks.length; ++i) {
+            result[i] = networks[i].allocate();
+        }
+        return result;
+    }
+
+    /**
+     * @return true if the gradients have this layout
+     */
+    public boolean matches(Gradient[] gradient) {
+        if (gradient.length != networks.length) {
+            return false;
+        }
+        for (int i = 0; i < networks.length; ++i) {
+            if (gradient[i].gradient().length() != networks[i].length
+                    || gradient[i].gradientForVariable().size() != networks[i].variables.size()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void write(DataOutput out) throws IOException {
+        out.writeInt(networks.length);
+        for (NetworkLayout network : networks) {
+            network.write(out);
+        }
+    }
+
+    public static GradientLayout read(DataInput in) throws IOException {
+        NetworkLayout[] networks = new NetworkLayout[in.readInt()];
+        for (int i = 0; i < networks.length; ++i) {
+            networks[i] = NetworkLayout.read(in);
+        }
+        return new GradientLayout(networks);
+    }
+
+    private static class NetworkLayout {
+        private final DataType dataType;
+        private final long[] shape;
+        private final char order;
+        private final long length;
+        private final List<VariableLayout> variables;
+
+        private NetworkLayout(DataType dataType, long[] shape, char order, List<VariableLayout> variables) {
+            this.dataType = dataType;
+            this.shape = shape;
+            this.order = order;
+            this.variables = variables;
+
+            long length = 1;
+            for (long size : shape) {
+                length *= size;
+            }
+            this.length = length;
+        }
+
+        private static NetworkLayout of(Gradient gradient) {
+            INDArray flat = gradient.gradient();
+            List<VariableLayout> variables = new ArrayList<>();
+            for (Map.Entry<String, INDArray> entry : gradient.gradientForVariable().entrySet()) {
+                INDArray view = entry.getValue();
+                Preconditions.checkState(view.data().address() == flat.data().address(),
+                        "The gradient of variable '%s' is not a view of the flat gradient", entry.getKey());
+
+                Character flatteningOrder = gradient.flatteningOrderForVariable(entry.getKey());
+                variables.add(new VariableLayout(entry.getKey(), view.offset() - flat.offset(), view.shape(), view.ordering(),
+                        flatteningOrder == null ? 0 : flatteningOrder));
+            }
+            return new NetworkLayout(flat.dataType(), flat.shape(), flat.ordering(), variables);
+        }
+
+        private Gradient allocate() {
+            INDArray flat = Nd4j.createUninitialized(dataType, shape, order);
+            DefaultGradient result = new DefaultGradient(flat);
+            for (VariableLayout variable : variables) {
+                long length = 1;
+                for (long size : variable.shape) {
+                    length *= size;
+                }
+                INDArray view = flat.get(NDArrayIndex.point(0), NDArrayIndex.interval(variable.offset, variable.offset + length))
+                        .reshape(variable.order, variable.shape);
+                result.setGradientFor(variable.key, view, variable.flatteningOrder == 0 ? null : variable.flatteningOrder);
+            }
+            return result;
+        }
+
+        private void write(DataOutput out) throws IOException {
+            out.writeUTF(dataType.name());
+            writeShape(out, shape);
+            out.writeChar(order);
+            out.writeInt(variables.size());
+            for (VariableLayout variable : variables) {
+                out.writeUTF(variable.key);
+                out.writeLong(variable.offset);
+                writeShape(out, variable.shape);
+                out.writeChar(variable.order);
+                out.writeChar(variable.flatteningOrder);
+            }
+        }
+
+        private static NetworkLayout read(DataInput in) throws IOException {
+            DataType dataType = DataType.valueOf(in.readUTF());
+            long[] shape = readShape(in);
+            char order = in.readChar();
+            int numVariables = in.readInt();
+            List<VariableLayout> variables = new ArrayList<>(numVariables);
+            for (int i = 0; i < numVariables; ++i) {
+                variables.add(new VariableLayout(in.readUTF(), in.readLong(), readShape(in), in.readChar(), in.readChar()));
+            }
+            return new NetworkLayout(dataType, shape, order, variables);
+        }
+
+        private static void writeShape(DataOutput out, long[] shape) throws IOException {
+            out.writeInt(shape.length);
+            for (long size : shape) {
+                out.writeLong(size);
+            }
+        }
+
+        private static long[] readShape(DataInput in) throws IOException {
+            long[] shape = new long[in.readInt()];
+            for (int i = 0; i < shape.length; ++i) {
+                shape[i] = in.readLong();
+            }
+            return shape;
+        }
+    }
+
+    private static class VariableLayout {
+        private final String key;
+        private final long offset;
+        private final long[] shape;
+        private final char order;
+        private final char flatteningOrder; // 0 if none
+
+        private VariableLayout(String key, long offset, long[] shape, char order, char flatteningOrder) {
+            this.key = key;
+            this.offset = offset;
+            this.shape = shape;
+            this.order = order;
+            this.flatteningOrder = flatteningOrder;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Konduit K.K.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.deeplearning4j.rl4j.learning.async;
+
+import lombok.extern.slf4j.Slf4j;
+import org.deeplearning4j.nn.gradient.Gradient;
+import org.deeplearning4j.rl4j.learning.configuration.LearningConfiguration;
+import org.deeplearning4j.rl4j.network.NeuralNet;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A lock-free implementation of {@link IAsyncGlobal} based on Hogwild! (https://arxiv.org/abs/1106.5730)
+ * <p>
+ * Each worker thread applies its gradients directly onto the flat parameters array of the global network,
+ * without any synchronization. To do so, each thread uses its own replica of the global network that shares
+ * the parameters array (see {@link NeuralNet#replicateSharingParams()}) but has its own updater. This is the
+ * "per-thread statistics" variant of the optimizer described in the A3C paper.
+ * <p>
+ * Concurrent updates may overwrite each other and the workers may read parameters that are being updated;
+ * this is by design and has been shown to have little impact on convergence when the updates are sparse or small.
+ * <p>
+ * If the learner update frequency is -1, the global network is used as the target network and no copy is made.
+ * In that case, a new version of the target is published after every update.
+ */
+@Slf4j
+public class HogwildAsyncGlobal<NN extends NeuralNet> implements IAsyncGlobal<NN> {
+
+    private final NN current;
+    private final NN target;
+    private final LearningConfiguration configuration;
+    private final ThreadLocal<NN> workerReplicas;
+    private volatile TargetSnapshot<NN> targetSnapshot;
+
+    private final AtomicInteger workerUpdateCount = new AtomicInteger();
+    private final AtomicInteger stepCount = new AtomicInteger();
+
+    public HogwildAsyncGlobal(NN initial, LearningConfiguration configuration) {
+        this.current = initial;
+        this.configuration = configuration;
+        this.target = configuration.getLearnerUpdateFrequency() == -1 ? initial : (NN) initial.replicateForInference();
+        this.workerReplicas = ThreadLocal.withInitial(() -> (NN) current.replicateSharingParams());
+        this.targetSnapshot = new TargetSnapshot<>(0, target, null);
+    }
+
+    public boolean isTrainingComplete() {
+        return stepCount.get() >= configuration.getMaxStep();
+    }
+
+    @Override
+    public int getWorkerUpdateCount() {
+        return workerUpdateCount.get();
+    }
+
+    @Override
+    public int getStepCount() {
+        return stepCount.get();
+    }
+
+    public void applyGradient(Gradient[] gradient, int nstep) {
+
+        if (isTrainingComplete()) {
+            return;
+        }
+
+        workerReplicas.get().applyGradient(gradient, nstep);
+
+        stepCount.addAndGet(nstep);
+        int updateCount = workerUpdateCount.incrementAndGet();
+
+        int targetUpdateFrequency = configuration.getLearnerUpdateFrequency();
+        if (targetUpdateFrequency != -1 && updateCount % targetUpdateFrequency == 0) {
+            log.info("Updating target network at updates={} steps={}", updateCount, stepCount.get());
+            target.copy(current);
+            targetSnapshot = new TargetSnapshot<>(updateCount, target, null);
+        }
+    }
+
+    @Override
+    public void terminate() {
+        // Do nothing
+    }
+
+    @Override
+    public NN getTarget() {
+        return target;
+    }
+
+    @Override
+    public TargetSnapshot<NN> getTargetSnapshot() {
+        if (configuration.getLearnerUpdateFrequency() != -1) {
+            return targetSnapshot;
+        }
+
+        // The target is the global network itself, which changes with every update
+        TargetSnapshot<NN> snapshot = targetSnapshot;
+        int updateCount = workerUpdateCount.get();
+        if (snapshot.getVersion() != updateCount) {
+            snapshot = new TargetSnapshot<>(updateCount, target, null);
+            targetSnapshot = snapshot;
+        }
+        return snapshot;
+    }
+
+}
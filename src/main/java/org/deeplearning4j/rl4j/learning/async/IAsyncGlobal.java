@@ -39,6 +39,12 @@ public interface IAsyncGlobal<NN extends NeuralNet> {
      */
     NN getTarget();
 
+    /**
+     * A versioned snapshot of the target network. Getting the snapshot is cheap; the worker threads should only copy
+     * its parameters when its version differs from the one they already have.
+     */
+    TargetSnapshot<NN> getTargetSnapshot();
+
     /**
      * Apply gradients to the global network
      *
@@ -47,4 +53,9 @@ public interface IAsyncGlobal<NN extends NeuralNet> {
      */
     void applyGradient(Gradient[] gradient, int batchSize);
 
+    /**
+     * Stop any background activity. Called once the training has ended, whether it completed or was stopped.
+     */
+    void terminate();
+
 }
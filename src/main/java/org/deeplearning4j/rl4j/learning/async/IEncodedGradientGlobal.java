@@ -0,0 +1,33 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Konduit K.K.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.deeplearning4j.rl4j.learning.async;
+
+/**
+ * Implemented by the {@link IAsyncGlobal} that accept the gradients encoded with the configured gradient compression,
+ * and decode them on their own learner thread.
+ */
+public interface IEncodedGradientGlobal {
+
+    /**
+     * Apply gradients encoded with the configured gradient compression
+     *
+     * @param gradient  The encoded gradients; copied before the call returns
+     * @param batchSize
+     */
+    void applyGradient(EncodedGradient gradient, int batchSize);
+
+}
@@ -0,0 +1,257 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Konduit K.K.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.deeplearning4j.rl4j.learning.async;
+
+import lombok.extern.slf4j.Slf4j;
+import org.deeplearning4j.rl4j.network.ac.IActorCritic;
+import org.nd4j.common.base.Preconditions;
+import org.nd4j.linalg.api.buffer.DataType;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs the policy inference of all the worker threads on a single thread, in batches (as in SEED RL,
+ * https://arxiv.org/abs/1910.06591).
+ * <p>
+ * The worker threads submit their observations and get the action probabilities back through a future. The inference
+ * thread waits for the first observation, then collects more until the batch has maxBatchSize observations or
+ * maxLatencyMicros have elapsed, and computes the whole batch with a single {@link IActorCritic#outputAll(INDArray[])}.
+ * The observations can have several channels, in which case each channel is batched in its own input.
+ * <p>
+ * The inference uses a replica of the global target network, which is synced with {@link IAsyncGlobal#getTargetSnapshot()}
+ * before each batch. Recurrent networks are not supported since their state is per worker.
+ */
+@Slf4j
+public class InferenceServer {
+
+    private static final long POLL_TIMEOUT_MS = 100;
+
+    private final IAsyncGlobal<IActorCritic> asyncGlobal;
+    private final DataType dataType;
+    private final int maxBatchSize;
+    private final long maxLatencyNanos;
+
+    private final BlockingQueue<Request> requests = new LinkedBlockingQueue<>();
+    private final AtomicBoolean isStarted = new AtomicBoolean(false);
+    private volatile boolean isTerminated = false;
+
+    private volatile long batchCount = 0;
+    private volatile long observationCount = 0;
+
+    /**
+     * @param asyncGlobal      The global network
+     * @param maxBatchSize     The maximum number of observations in a batch
+     * @param maxLatencyMicros The maximum time, in microseconds, the inference thread waits to fill a batch
+     */
+    public InferenceServer(IAsyncGlobal<IActorCritic> asyncGlobal, int maxBatchSize, long maxLatencyMicros) {
+        this(asyncGlobal, null, maxBatchSize, maxLatencyMicros);
+    }
+
+    /**
+     * @param asyncGlobal      The global network
+     * @param dataType         The data type of the replica used for the inference, or null to use the one of the global
+     *                         network
+     * @param maxBatchSize     The maximum number of observations in a batch
+     * @param maxLatencyMicros The maximum time, in microseconds, the inference thread waits to fill a batch
+     */
+    public InferenceServer(IAsyncGlobal<IActorCritic> asyncGlobal, DataType dataType, int maxBatchSize, long maxLatencyMicros) {
+        Preconditions.checkArgument(!asyncGlobal.getTarget().isRecurrent(), "Recurrent networks are not supported by the inference server");
+        Preconditions.checkArgument(maxBatchSize > 0, "The max batch size must be greater than 0, got %s", maxBatchSize);
+        Preconditions.checkArgument(maxLatencyMicros >= 0, "The max latency must not be negative, got %s", maxLatencyMicros);
+
+        this.asyncGlobal = asyncGlobal;
+        this.dataType = dataType;
+        this.maxBatchSize = maxBatchSize;
+        this.maxLatencyNanos = TimeUnit.MICROSECONDS.toNanos(maxLatencyMicros);
+    }
+
+    /**
+     * Submit an observation for inference.
+     *
+     * @param observation A single observation, with a batch dimension of 1. All the observations must have the same shape.
+     * @return A future of the action probabilities
+     */
+    public CompletableFuture<INDArray> submit(INDArray observation) {
+        return submit(new INDArray[]{observation});
+    }
+
+    /**
+     * Submit a multi-channel observation for inference. The network must have one input per channel.
+     *
+     * @param channels The data of each channel, with a batch dimension of 1. All the observations must have the same
+     *                 number of channels and the same shapes.
+     * @return A future of the action probabilities
+     */
+    public CompletableFuture<INDArray> submit(INDArray[] channels) {
+        CompletableFuture<INDArray> result = new CompletableFuture<>();
+        if (isTerminated) {
+            result.completeExceptionally(new IllegalStateException("The inference server has been terminated"));
+            return result;
+        }
+
+        start();
+        requests.add(new Request(channels, result));
+
+        // The inference thread may have stopped after the check above
+        if (isTerminated) {
+            failPendingRequests(new ArrayList<>());
+        }
+        return result;
+    }
+
+    /**
+     * Stop the inference thread. The pending and future requests fail.
+     */
+    public void terminate() {
+        isTerminated = true;
+    }
+
+    /**
+     * @return The average number of observations per batch
+     */
+    public double getAverageBatchSize() {
+        long count = batchCount;
+        return count == 0 ? 0.0 : (double) observationCount / count;
+    }
+
+    private void start() {
+        if (!isStarted.compareAndSet(false, true)) {
+            return;
+        }
+
+        Thread inferenceThread = new Thread(this::run, "rl4j-inference");
+        inferenceThread.setDaemon(true);
+        inferenceThread.start();
+    }
+
+    private void run() {
+        IActorCritic target = asyncGlobal.getTarget();
+        IActorCritic network = (IActorCritic) (dataType == null ? target.replicateForInference() : target.replicateForInference(dataType));
+        DataType inputDataType = network.getParams()[0].dataType();
+        long networkVersion = -1;
+
+        // One set of input arrays (one per channel) per batch size, allocated on first use
+        INDArray[][] inputs = new INDArray[maxBatchSize + 1][];
+        List<Request> batch = new ArrayList<>(maxBatchSize);
+
+        try {
+            while (!isTerminated) {
+                Request first = requests.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+
+                batch.add(first);
+                collectBatch(batch);
+
+                TargetSnapshot<IActorCritic> snapshot = asyncGlobal.getTargetSnapshot();
+                if (snapshot.getVersion() != networkVersion) {
+                    snapshot.copyTo(network);
+                    networkVersion = snapshot.getVersion();
+                }
+
+                int size = batch.size();
+                if (inputs[size] == null || inputs[size].length != first.channels.length) {
+                    inputs[size] = new INDArray[first.channels.length];
+                    for (int channel = 0; channel < first.channels.length; ++channel) {
+                        long[] shape = first.channels[channel].shape().clone();
+                        shape[0] = size;
+                        inputs[size][channel] = Nd4j.create(inputDataType, shape);
+                    }
+                }
+                runBatch(network, inputs[size], batch);
+
+                ++batchCount;
+                observationCount += size;
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            isTerminated = true;
+            failPendingRequests(batch);
+            log.info("Inference thread stopped: batches={} averageBatchSize={}", batchCount, getAverageBatchSize());
+        }
+    }
+
+    private void collectBatch(List<Request> batch) throws InterruptedException {
+        requests.drainTo(batch, maxBatchSize - batch.size());
+
+        long deadline = System.nanoTime() + maxLatencyNanos;
+        while (batch.size() < maxBatchSize) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                break;
+            }
+
+            Request request = requests.poll(remaining, TimeUnit.NANOSECONDS);
+            if (request == null) {
+                break;
+            }
+            batch.add(request);
+            requests.drainTo(batch, maxBatchSize - batch.size());
+        }
+    }
+
+    private void runBatch(IActorCritic network, INDArray[] inputs, List<Request> batch) {
+        try {
+            for (int i = 0; i < batch.size(); ++i) {
+                INDArray[] channels = batch.get(i).channels;
+                Preconditions.checkArgument(channels.length == inputs.length, "All the observations must have %s channels, got %s", inputs.length, channels.length);
+                for (int channel = 0; channel < inputs.length; ++channel) {
+                    inputs[channel].putRow(i, channels[channel]);
+                }
+            }
+
+            INDArray probabilities = network.outputAll(inputs)[1];
+            for (int i = 0; i < batch.size(); ++i) {
+                batch.get(i).result.complete(probabilities.getRow(i));
+            }
+        } catch (RuntimeException e) {
+            for (Request request : batch) {
+                request.result.completeExceptionally(e);
+            }
+        }
+    }
+
+    private void failPendingRequests(List<Request> batch) {
+        requests.drainTo(batch);
+        IllegalStateException exception = new IllegalStateException("The inference server has been terminated");
+        for (Request request : batch) {
+            request.result.completeExceptionally(exception);
+        }
+        batch.clear();
+    }
+
+    private static class Request {
+        private final INDArray[] channels;
+        private final CompletableFuture<INDArray> result;
+
+        private Request(INDArray[] channels, CompletableFuture<INDArray> result) {
+            this.channels = channels;
+            this.result = result;
+        }
+    }
+}
@@ -0,0 +1,394 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Konduit K.K.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.deeplearning4j.rl4j.learning.async;
+
+import lombok.extern.slf4j.Slf4j;
+import org.deeplearning4j.nn.gradient.Gradient;
+import org.deeplearning4j.rl4j.learning.async.distributed.GradientCodec;
+import org.deeplearning4j.rl4j.learning.async.distributed.GradientCodecFactory;
+import org.deeplearning4j.rl4j.learning.configuration.LearningConfiguration;
+import org.deeplearning4j.rl4j.network.NeuralNet;
+import org.nd4j.common.base.Preconditions;
+
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An implementation of {@link IAsyncGlobal} where the worker threads do not wait for their gradients to be applied.
+ * <p>
+ * The gradients are copied into a bounded multi-producer, single-consumer queue and a dedicated learner thread applies
+ * them, one at a time, to a {@link AsyncGlobal} (which coalesces them if a coalescing window is configured and
+ * publishes the target network). Gradients encoded with the configured gradient compression are queued encoded and
+ * decoded by the learner thread. When the queue is full, the worker either waits or a gradient is dropped, see
+ * {@link LearningConfiguration.GradientQueueBackpressure}.
+ * <p>
+ * The staleness of a gradient is the number of worker updates applied to the global network since the target the
+ * worker computed it from. The target version of a worker is the version of the last snapshot it got with
+ * {@link #getTargetSnapshot()}, as the worker threads always compute their gradients from that snapshot. Gradients that
+ * are staler than the configured maximum are dropped or down-weighted, see
+ * {@link LearningConfiguration.StaleGradientPolicy}.
+ * <p>
+ * The learner thread is started with the first gradient and stops once the training is complete (or
+ * {@link #terminate()} has been called) and all the queued gradients have been applied. terminate() waits for it.
+ * <p>
+ * If the learner thread fails, the training is complete: the worker threads get the failure when they apply their
+ * next gradient, and terminate() rethrows it.
+ */
+@Slf4j
+public class QueuedAsyncGlobal<NN extends NeuralNet> implements IAsyncGlobal<NN>, IEncodedGradientGlobal {
+
+    private static final long LEARNER_POLL_TIMEOUT_MS = 100;
+
+    private final AsyncGlobal<NN> global;
+    private final LearningConfiguration configuration;
+
+    private final BlockingQueue<PendingGradient> queue;
+    private final ConcurrentLinkedQueue<PendingGradient> freeGradients = new ConcurrentLinkedQueue<>();
+    private final ThreadLocal<Long> workerTargetVersions = ThreadLocal.withInitial(() -> 0L);
+
+    private final AtomicBoolean isLearnerStarted = new AtomicBoolean(false);
+    private volatile Thread learnerThread;
+    private volatile boolean isTerminated = false;
+    private volatile boolean isLearnerStopped = false;
+    private volatile RuntimeException learnerFailure;
+
+    // The number of worker threads inside applyGradient, see canLearnerStop()
+    private final AtomicInteger enqueuingCount = new AtomicInteger();
+
+    private final AtomicInteger stepCount = new AtomicInteger();
+
+    // Only used by the learner thread
+    private final GradientCodec decoder;
+    private Gradient[] decoded;
+
+    private final AtomicLong droppedGradientCount = new AtomicLong();
+    private final AtomicLong downWeightedGradientCount = new AtomicLong();
+    private volatile long processedGradientCount = 0;
+    private volatile long stalenessSum = 0;
+    private volatile int maxObservedStaleness = 0;
+
+    public QueuedAsyncGlobal(NN initial, LearningConfiguration configuration) {
+        Preconditions.checkArgument(configuration.getGradientQueueCapacity() > 0, "The gradient queue capacity must be greater than 0, got %s", configuration.getGradientQueueCapacity());
+        Preconditions.checkArgument(!hasErrorFeedback(configuration.getGradientCompression()) || !canDropGradients(configuration),
+                "The %s gradient compression cannot be used when gradients can be dropped: the worker has already removed the encoded values from its residual", configuration.getGradientCompression());
+
+        this.global = new AsyncGlobal<>(initial, configuration);
+        this.configuration = configuration;
+        this.queue = new ArrayBlockingQueue<>(configuration.getGradientQueueCapacity());
+        this.decoder = configuration.getGradientCompression() == LearningConfiguration.GradientCompression.NONE
+                ? null
+                : GradientCodecFactory.create(configuration);
+    }
+
+    // The codecs that feed their errors back into the next gradients of the worker
+    private static boolean hasErrorFeedback(LearningConfiguration.GradientCompression compression) {
+        return compression == LearningConfiguration.GradientCompression.INT8
+                || compression == LearningConfiguration.GradientCompression.TOP_K;
+    }
+
+    // Ignores the gradients dropped by BLOCK once the learner thread has stopped, as the training is then over
+    private static boolean canDropGradients(LearningConfiguration configuration) {
+        return configuration.getGradientQueueBackpressure() != LearningConfiguration.GradientQueueBackpressure.BLOCK
+                || (configuration.getMaxGradientStaleness() != -1 && configuration.getStaleGradientPolicy() == LearningConfiguration.StaleGradientPolicy.DROP);
+    }
+
+    public boolean isTrainingComplete() {
+        return isTerminated || stepCount.get() >= configuration.getMaxStep();
+    }
+
+    /**
+     * The number of worker gradients that have been applied to the global network.
+     */
+    @Override
+    public int getWorkerUpdateCount() {
+        return global.getWorkerUpdateCount();
+    }
+
+    /**
+     * The number of environment steps submitted by the worker threads, including the ones of dropped gradients.
+     */
+    @Override
+    public int getStepCount() {
+        return stepCount.get();
+    }
+
+    /**
+     * @return The number of gradients waiting to be applied
+     */
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    /**
+     * @return The number of gradients dropped, because the queue was full or because they were too stale
+     */
+    public long getDroppedGradientCount() {
+        return droppedGradientCount.get();
+    }
+
+    /**
+     * @return The number of gradients that were down-weighted because they were too stale
+     */
+    public long getDownWeightedGradientCount() {
+        return downWeightedGradientCount.get();
+    }
+
+    /**
+     * @return The highest staleness seen by the learner thread
+     */
+    public int getMaxObservedStaleness() {
+        return maxObservedStaleness;
+    }
+
+    /**
+     * @return The average staleness of the gradients seen by the learner thread
+     */
+    public double getAverageStaleness() {
+        long count = processedGradientCount;
+        return count == 0 ? 0.0 : (double) stalenessSum / count;
+    }
+
+    @Override
+    public NN getTarget() {
+        return global.getTarget();
+    }
+
+    @Override
+    public TargetSnapshot<NN> getTargetSnapshot() {
+        TargetSnapshot<NN> snapshot = global.getTargetSnapshot();
+        workerTargetVersions.set(snapshot.getVersion());
+        return snapshot;
+    }
+
+    /**
+     * Copy the gradients and put them in the queue. Depending on the backpressure configuration, may wait until there
+     * is room in the queue.
+     */
+    @Override
+    public void applyGradient(Gradient[] gradient, int batchSize) {
+        submit(gradient, null, batchSize);
+    }
+
+    /**
+     * Same as {@link #applyGradient(Gradient[], int)}; the encoded gradients are copied, and are decoded by the learner
+     * thread.
+     */
+    @Override
+    public void applyGradient(EncodedGradient gradient, int batchSize) {
+        Preconditions.checkState(decoder != null, "No gradient compression is configured");
+        submit(null, gradient, batchSize);
+    }
+
+    // Either gradient or encodedGradient is given
+    private void submit(Gradient[] gradient, EncodedGradient encodedGradient, int batchSize) {
+        throwIfLearnerFailed();
+
+        // Counted before checking if the training is complete, so that the learner thread cannot stop between the
+        // check and the enqueuing of the gradient
+        enqueuingCount.incrementAndGet();
+        try {
+            if (isTrainingComplete()) {
+                return;
+            }
+
+            startLearner();
+
+            PendingGradient pendingGradient = freeGradients.poll();
+            if (pendingGradient == null) {
+                pendingGradient = new PendingGradient();
+            }
+            pendingGradient.isEncoded = encodedGradient != null;
+            if (pendingGradient.isEncoded) {
+                pendingGradient.encodedGradient.copyFrom(encodedGradient);
+            } else {
+                pendingGradient.gradient.clear();
+                pendingGradient.gradient.add(gradient, batchSize);
+            }
+            pendingGradient.batchSize = batchSize;
+            pendingGradient.targetVersion = workerTargetVersions.get();
+
+            stepCount.addAndGet(batchSize);
+
+            enqueue(pendingGradient);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            enqueuingCount.decrementAndGet();
+        }
+    }
+
+    private void enqueue(PendingGradient pendingGradient) throws InterruptedException {
+        switch (configuration.getGradientQueueBackpressure()) {
+            case DROP_NEWEST:
+                if (!queue.offer(pendingGradient)) {
+                    drop(pendingGradient);
+                }
+                break;
+
+            case DROP_OLDEST:
+                while (!queue.offer(pendingGradient)) {
+                    PendingGradient oldest = queue.poll();
+                    if (oldest != null) {
+                        drop(oldest);
+                    }
+                }
+                break;
+
+            case BLOCK:
+            default:
+                while (!queue.offer(pendingGradient, LEARNER_POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                    if (isLearnerStopped) {
+                        drop(pendingGradient);
+                        return;
+                    }
+                }
+                break;
+        }
+    }
+
+    private void drop(PendingGradient pendingGradient) {
+        droppedGradientCount.incrementAndGet();
+        freeGradients.offer(pendingGradient);
+    }
+
+    /**
+     * Stop accepting gradients and wait until the learner thread has applied the queued ones.
+     *
+     * @throws IllegalStateException if the learner thread failed
+     */
+    @Override
+    public void terminate() {
+        isTerminated = true;
+
+        Thread thread = learnerThread;
+        if (thread != null) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        throwIfLearnerFailed();
+    }
+
+    private void throwIfLearnerFailed() {
+        RuntimeException failure = learnerFailure;
+        if (failure != null) {
+            throw new IllegalStateException("The learner thread failed", failure);
+        }
+    }
+
+    private void startLearner() {
+        if (!isLearnerStarted.compareAndSet(false, true)) {
+            return;
+        }
+
+        Thread thread = new Thread(this::runLearner, "rl4j-learner");
+        thread.setDaemon(true);
+        learnerThread = thread;
+        thread.start();
+    }
+
+    // The training is complete, no worker thread can still enqueue a gradient, and all the gradients were taken
+    private boolean canLearnerStop() {
+        return isTrainingComplete() && enqueuingCount.get() == 0 && queue.isEmpty();
+    }
+
+    private void runLearner() {
+        try {
+            while (true) {
+                PendingGradient pendingGradient = queue.poll(LEARNER_POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                if (pendingGradient == null) {
+                    if (canLearnerStop()) {
+                        break;
+                    }
+                    continue;
+                }
+
+                apply(pendingGradient);
+                freeGradients.offer(pendingGradient);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.error("The learner thread failed.", e);
+            learnerFailure = e;
+        } finally {
+            isTerminated = true;
+            isLearnerStopped = true;
+            log.info("Learner thread stopped: processed={} dropped={} downWeighted={} averageStaleness={} maxStaleness={}",
+                    processedGradientCount, droppedGradientCount.get(), downWeightedGradientCount.get(), getAverageStaleness(), maxObservedStaleness);
+        }
+    }
+
+    private void apply(PendingGradient pendingGradient) {
+        int staleness = (int) (global.getAppliedWorkerUpdateCount() - pendingGradient.targetVersion);
+
+        stalenessSum += staleness;
+        if (staleness > maxObservedStaleness) {
+            maxObservedStaleness = staleness;
+        }
+        ++processedGradientCount;
+
+        Gradient[] gradient = pendingGradient.isEncoded ? decode(pendingGradient.encodedGradient) : pendingGradient.gradient.get();
+        int maxStaleness = configuration.getMaxGradientStaleness();
+        if (maxStaleness != -1 && staleness > maxStaleness) {
+            if (configuration.getStaleGradientPolicy() == LearningConfiguration.StaleGradientPolicy.DROP) {
+                droppedGradientCount.incrementAndGet();
+                return;
+            }
+
+            double weight = 1.0 / (1 + staleness - maxStaleness);
+            for (Gradient g : gradient) {
+                g.gradient().muli(weight);
+            }
+            downWeightedGradientCount.incrementAndGet();
+        }
+
+        global.applyGradient(gradient, pendingGradient.batchSize);
+    }
+
+    private Gradient[] decode(EncodedGradient encodedGradient) {
+        GradientLayout layout = encodedGradient.getLayout();
+        if (decoded == null || !layout.matches(decoded)) {
+            decoded = layout.allocate();
+        }
+
+        try {
+            decoder.decode(encodedGradient.toInputStream(), decoded);
+        } catch (IOException e) {
+            // The encoded gradients are in memory; this is a malformed encoding
+            throw new IllegalStateException("Could not decode a worker gradient", e);
+        }
+        return decoded;
+    }
+
+    private static class PendingGradient {
+        private final GradientAccumulator gradient = new GradientAccumulator();
+        private final EncodedGradient encodedGradient = new EncodedGradient();
+        private boolean isEncoded;
+        private int batchSize;
+        private long targetVersion;
+    }
+}
@@ -0,0 +1,77 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Konduit K.K.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.deeplearning4j.rl4j.learning.async;
+
+import lombok.Getter;
+import org.deeplearning4j.rl4j.network.NeuralNet;
+
+import java.util.concurrent.locks.Lock;
+
+/**
+ * An immutable, versioned view of the target network published by an {@link IAsyncGlobal}.
+ * <p>
+ * The worker threads keep the version of the last snapshot they copied and only copy the parameters again
+ * when a snapshot with a different version is published.
+ *
+ * @param <NN> The neural net type
+ */
+public class TargetSnapshot<NN extends NeuralNet> {
+
+    /**
+     * The version of the target network. A new version is published each time the target network changes.
+     */
+    @Getter
+    private final long version;
+
+    /**
+     * The target network. It must not be modified by the caller.
+     */
+    @Getter
+    private final NN network;
+
+    private final Lock readLock;
+
+    /**
+     * @param version  The version of the target network
+     * @param network  The target network
+     * @param readLock The lock to hold while reading the network. Can be null if no locking is required.
+     */
+    public TargetSnapshot(long version, NN network, Lock readLock) {
+        this.version = version;
+        this.network = network;
+        this.readLock = readLock;
+    }
+
+    /**
+     * Copy the parameters of the snapshot into another network
+     *
+     * @param destination The network that will receive the parameters
+     */
+    public void copyTo(NN destination) {
+        if (readLock == null) {
+            destination.copy(network);
+            return;
+        }
+
+        readLock.lock();
+        try {
+            destination.copy(network);
+        } finally {
+            readLock.unlock();
+        }
+    }
+}
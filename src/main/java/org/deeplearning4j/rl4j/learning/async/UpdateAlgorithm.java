@@ -16,6 +16,7 @@
 package org.deeplearning4j.rl4j.learning.async;
 
 import org.deeplearning4j.nn.gradient.Gradient;
+import org.deeplearning4j.rl4j.experience.Rollout;
 import org.deeplearning4j.rl4j.experience.StateActionPair;
 import org.deeplearning4j.rl4j.network.NeuralNet;
 
@@ -23,4 +24,6 @@ import java.util.List;
 
 public interface UpdateAlgorithm<NN extends NeuralNet> {
     Gradient[] computeGradients(NN current, List<StateActionPair<Integer>> experience);
+
+    Gradient[] computeGradients(NN current, Rollout rollout);
 }
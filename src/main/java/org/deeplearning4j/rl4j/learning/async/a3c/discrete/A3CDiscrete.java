@@ -26,12 +26,19 @@ import org.deeplearning4j.rl4j.learning.async.AsyncGlobal;
 import org.deeplearning4j.rl4j.learning.async.AsyncLearning;
 import org.deeplearning4j.rl4j.learning.async.AsyncThread;
 import org.deeplearning4j.rl4j.learning.async.AsyncThreadDiscrete;
+import org.deeplearning4j.rl4j.learning.async.HogwildAsyncGlobal;
+import org.deeplearning4j.rl4j.learning.async.IAsyncGlobal;
+import org.deeplearning4j.rl4j.learning.async.IEncodedGradientGlobal;
+import org.deeplearning4j.rl4j.learning.async.InferenceServer;
+import org.deeplearning4j.rl4j.learning.async.QueuedAsyncGlobal;
 import org.deeplearning4j.rl4j.learning.configuration.LearningConfiguration;
 import org.deeplearning4j.rl4j.mdp.MDP;
 import org.deeplearning4j.rl4j.network.ac.IActorCritic;
 import org.deeplearning4j.rl4j.policy.ACPolicy;
 import org.deeplearning4j.rl4j.space.DiscreteSpace;
 import org.deeplearning4j.rl4j.space.Encodable;
+import org.nd4j.common.base.Preconditions;
+import org.nd4j.linalg.api.buffer.DataType;
 import org.nd4j.linalg.api.rng.Random;
 import org.nd4j.linalg.factory.Nd4j;
 
@@ -50,15 +57,34 @@ public class A3CDiscrete<OBSERVATION extends Encodable> extends AsyncLearning<OB
     final protected MDP<OBSERVATION, Integer, DiscreteSpace> mdp;
     final private IActorCritic iActorCritic;
     @Getter
-    final private AsyncGlobal asyncGlobal;
+    final private IAsyncGlobal<IActorCritic> asyncGlobal;
     @Getter
     final private ACPolicy<OBSERVATION> policy;
 
+    /**
+     * The inference server shared by the worker threads while training, if the inference batch size is set
+     */
+    private InferenceServer inferenceServer;
+
     public A3CDiscrete(MDP<OBSERVATION, Integer, DiscreteSpace> mdp, IActorCritic iActorCritic, LearningConfiguration conf) {
+        this(mdp, iActorCritic, conf, buildAsyncGlobal(iActorCritic, conf));
+    }
+
+    /**
+     * Train with an existing global, for example a
+     * {@link org.deeplearning4j.rl4j.learning.async.distributed.RemoteAsyncGlobal} to contribute to the training of
+     * another process. In that case, iActorCritic is not updated by the training and the policy uses it as is.
+     */
+    public A3CDiscrete(MDP<OBSERVATION, Integer, DiscreteSpace> mdp, IActorCritic iActorCritic, LearningConfiguration conf, IAsyncGlobal<IActorCritic> asyncGlobal) {
+        Preconditions.checkArgument(conf.getInferenceBatchSize() > 0 || conf.getActorDataType() == DataType.FLOAT,
+                "The actor data type is only used by the inference server, set inferenceBatchSize to use %s", conf.getActorDataType());
+        Preconditions.checkArgument(conf.getGradientCompression() == LearningConfiguration.GradientCompression.NONE || asyncGlobal instanceof IEncodedGradientGlobal,
+                "The gradient compression is only supported by the QUEUED global update mode, got %s", conf.getGlobalUpdateMode());
+
         this.iActorCritic = iActorCritic;
         this.mdp = mdp;
         this.configuration = conf;
-        asyncGlobal = new AsyncGlobal<>(iActorCritic, conf);
+        this.asyncGlobal = asyncGlobal;
 
         Long seed = conf.getSeed();
         Random rnd = Nd4j.getRandom();
@@ -69,8 +95,40 @@ public class A3CDiscrete<OBSERVATION extends Encodable> extends AsyncLearning<OB
         policy = new ACPolicy<>(iActorCritic, rnd);
     }
 
+    private static IAsyncGlobal<IActorCritic> buildAsyncGlobal(IActorCritic iActorCritic, LearningConfiguration conf) {
+        switch (conf.getGlobalUpdateMode()) {
+            case HOGWILD:
+                return new HogwildAsyncGlobal<>(iActorCritic, conf);
+
+            case QUEUED:
+                return new QueuedAsyncGlobal<>(iActorCritic, conf);
+
+            case LOCKED:
+            default:
+                return new AsyncGlobal<>(iActorCritic, conf);
+        }
+    }
+
     protected AsyncThread newThread(int i, int deviceNum) {
-        return new AsyncThreadDiscrete(mdp.newInstance(), asyncGlobal, this.getConfiguration(), getListeners(), i, deviceNum);
+        AsyncThreadDiscrete thread = new AsyncThreadDiscrete(mdp.newInstance(), asyncGlobal, this.getConfiguration(), getListeners(), i, deviceNum);
+        thread.setInferenceServer(inferenceServer);
+        return thread;
+    }
+
+    @Override
+    public void train() {
+        if (configuration.getInferenceBatchSize() > 0) {
+            inferenceServer = new InferenceServer(asyncGlobal, configuration.getActorDataType(), configuration.getInferenceBatchSize(), configuration.getInferenceMaxLatencyMicros());
+        }
+
+        try {
+            super.train();
+        } finally {
+            if (inferenceServer != null) {
+                inferenceServer.terminate();
+                inferenceServer = null;
+            }
+        }
     }
 
     public IActorCritic getNeuralNet() {
@@ -18,6 +18,7 @@
 package org.deeplearning4j.rl4j.learning.async.a3c.discrete;
 
 import lombok.Getter;
+import org.deeplearning4j.rl4j.learning.advantage.AdvantageEstimatorFactory;
 import org.deeplearning4j.rl4j.learning.async.AsyncThreadDiscrete;
 import org.deeplearning4j.rl4j.learning.async.IAsyncGlobal;
 import org.deeplearning4j.rl4j.learning.async.UpdateAlgorithm;
@@ -74,11 +75,11 @@ public class A3CThreadDiscrete<OBSERVATION extends Encodable> extends AsyncThrea
     }
 
     /**
-     * calc the gradients based on the n-step rewards
+     * calc the gradients based on the advantages estimated with the configured {@link org.deeplearning4j.rl4j.learning.configuration.LearningConfiguration.AdvantageEstimation}
      */
     @Override
     protected UpdateAlgorithm<IActorCritic> buildUpdateAlgorithm() {
         int[] shape = getHistoryProcessor() == null ? getMdp().getObservationSpace().getShape() : getHistoryProcessor().getConf().getShape();
-        return new AdvantageActorCriticUpdateAlgorithm(asyncGlobal.getTarget().isRecurrent(), shape, getMdp().getActionSpace().getSize(), configuration.getGamma());
+        return new AdvantageActorCriticUpdateAlgorithm(asyncGlobal.getTarget().isRecurrent(), shape, getMdp().getActionSpace().getSize(), AdvantageEstimatorFactory.create(configuration));
     }
 }
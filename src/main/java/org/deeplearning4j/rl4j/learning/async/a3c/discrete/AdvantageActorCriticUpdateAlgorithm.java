@@ -16,10 +16,16 @@
 package org.deeplearning4j.rl4j.learning.async.a3c.discrete;
 
 import org.deeplearning4j.nn.gradient.Gradient;
+import org.deeplearning4j.rl4j.experience.Rollout;
 import org.deeplearning4j.rl4j.experience.StateActionPair;
 import org.deeplearning4j.rl4j.learning.Learning;
+import org.deeplearning4j.rl4j.learning.advantage.AdvantageEstimator;
+import org.deeplearning4j.rl4j.learning.advantage.NStepReturnEstimator;
 import org.deeplearning4j.rl4j.learning.async.UpdateAlgorithm;
 import org.deeplearning4j.rl4j.network.ac.IActorCritic;
+import org.deeplearning4j.rl4j.observation.Observation;
+import org.nd4j.common.base.Preconditions;
+import org.nd4j.linalg.api.buffer.DataType;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.factory.Nd4j;
 import org.nd4j.linalg.indexing.NDArrayIndex;
@@ -28,76 +34,140 @@ import java.util.List;
 
 /**
  * The Advantage Actor-Critic update algorithm can be used by A2C and A3C algorithms alike
+ * <p>
+ * The advantages and the critic targets are computed by an {@link AdvantageEstimator}; the discounted n-step returns
+ * are used by default.
+ * <p>
+ * The experience elements and the rollouts can hold multi-channel observations, in which case the actor-critic must
+ * have one input per channel.
  */
 public class AdvantageActorCriticUpdateAlgorithm implements UpdateAlgorithm<IActorCritic> {
 
     private final int[] shape;
     private final int actionSpaceSize;
-    private final double gamma;
+    private final AdvantageEstimator advantageEstimator;
     private final boolean recurrent;
 
     public AdvantageActorCriticUpdateAlgorithm(boolean recurrent,
                                                int[] shape,
                                                int actionSpaceSize,
                                                double gamma) {
+        this(recurrent, shape, actionSpaceSize, new NStepReturnEstimator(gamma));
+    }
+
+    public AdvantageActorCriticUpdateAlgorithm(boolean recurrent,
+                                               int[] shape,
+                                               int actionSpaceSize,
+                                               AdvantageEstimator advantageEstimator) {
 
         //if recurrent then train as a time serie with a batch size of 1
         this.recurrent = recurrent;
         this.shape = shape;
         this.actionSpaceSize = actionSpaceSize;
-        this.gamma = gamma;
+        this.advantageEstimator = advantageEstimator;
     }
 
     @Override
     public Gradient[] computeGradients(IActorCritic current, List<StateActionPair<Integer>> experience) {
         int size = experience.size();
 
-        int[] nshape = recurrent ? Learning.makeShape(1, shape, size)
-                : Learning.makeShape(size, shape);
-
-        INDArray input = Nd4j.create(nshape);
-        INDArray targets = recurrent ? Nd4j.create(1, 1, size) : Nd4j.create(size, 1);
-        INDArray logSoftmax = recurrent ? Nd4j.zeros(1, actionSpaceSize, size)
-                : Nd4j.zeros(size, actionSpaceSize);
-
-        StateActionPair<Integer> stateActionPair = experience.get(size - 1);
-        double value;
-        if (stateActionPair.isTerminal()) {
-            value = 0;
-        } else {
-            INDArray[] output = current.outputAll(stateActionPair.getObservation().getData());
-            value = output[0].getDouble(0);
+        // Each channel of the observations is batched in its own input; a single channel has the configured shape
+        Observation firstObservation = experience.get(0).getObservation();
+        int numChannels = firstObservation.getNumChannels();
+        INDArray[] inputs = new INDArray[numChannels];
+        for (int channel = 0; channel < numChannels; ++channel) {
+            int[] channelShape = numChannels == 1 ? shape : getChannelShape(firstObservation.getChannelData(channel));
+            inputs[channel] = Nd4j.create(getInputShape(size, channelShape));
         }
 
-        for (int i = size - 1; i >= 0; --i) {
-            stateActionPair = experience.get(i);
+        int[] actions = new int[size];
+        double[] rewards = new double[size];
+        boolean[] terminals = new boolean[size];
+
+        for (int i = 0; i < size; ++i) {
+            StateActionPair<Integer> stateActionPair = experience.get(i);
+            Observation observation = stateActionPair.getObservation();
+            Preconditions.checkArgument(observation.getNumChannels() == numChannels,
+                    "All the observations must have %s channels, got %s", numChannels, observation.getNumChannels());
+            for (int channel = 0; channel < numChannels; ++channel) {
+                putObservation(inputs[channel], i, observation.getChannelData(channel));
+            }
+            actions[i] = stateActionPair.getAction();
+            rewards[i] = stateActionPair.getReward();
+            terminals[i] = stateActionPair.isTerminal();
+        }
 
-            INDArray observationData = stateActionPair.getObservation().getData();
+        return computeGradients(current, inputs, size, actions, rewards, terminals);
+    }
 
-            INDArray[] output = current.outputAll(observationData);
+    @Override
+    public Gradient[] computeGradients(IActorCritic current, Rollout rollout) {
+        int size = rollout.getSize();
 
-            value = stateActionPair.getReward() + gamma * value;
+        // The rollout observations of each channel are already a [size, shape] batch; only the recurrent layout needs a copy
+        INDArray[] inputs = new INDArray[rollout.getNumChannels()];
+        for (int channel = 0; channel < inputs.length; ++channel) {
+            INDArray observations = rollout.getObservations(channel);
             if (recurrent) {
-                input.get(NDArrayIndex.point(0), NDArrayIndex.all(), NDArrayIndex.point(i)).assign(observationData);
+                inputs[channel] = Nd4j.create(getInputShape(size, getChannelShape(observations)));
+                for (int i = 0; i < size; ++i) {
+                    putObservation(inputs[channel], i, observations.getRow(i));
+                }
             } else {
-                input.putRow(i, observationData);
+                inputs[channel] = observations;
             }
+        }
 
-            //the critic
-            targets.putScalar(i, value);
+        return computeGradients(current, inputs, size, rollout.getActions(), rollout.getRewards(), rollout.getTerminals());
+    }
 
-            //the actor
-            double expectedV = output[0].getDouble(0);
-            double advantage = value - expectedV;
-            if (recurrent) {
-                logSoftmax.putScalar(0, stateActionPair.getAction(), i, advantage);
-            } else {
-                logSoftmax.putScalar(i, stateActionPair.getAction(), advantage);
-            }
+    private int[] getInputShape(int size, int[] shape) {
+        return recurrent ? Learning.makeShape(1, shape, size)
+                : Learning.makeShape(size, shape);
+    }
+
+    // The shape of the channel data, without its batch dimension
+    private static int[] getChannelShape(INDArray channelData) {
+        int[] channelShape = new int[channelData.rank() - 1];
+        for (int i = 0; i < channelShape.length; ++i) {
+            channelShape[i] = (int) channelData.size(i + 1);
+        }
+        return channelShape;
+    }
+
+    private void putObservation(INDArray input, int i, INDArray observationData) {
+        if (recurrent) {
+            input.get(NDArrayIndex.point(0), NDArrayIndex.all(), NDArrayIndex.point(i)).assign(observationData);
+        } else {
+            input.putRow(i, observationData);
         }
+    }
+
+    private Gradient[] computeGradients(IActorCritic current, INDArray[] inputs, int size,
+                                        int[] actions, double[] rewards, boolean[] terminals) {
+        // A single forward pass computes the expected values of all observations. The bootstrap observation is the
+        // observation of the last element, which is already the last row (or time step) of the inputs.
+        INDArray expectedValues = current.outputAll(inputs)[0];
+        double[] values = expectedValues.reshape(size).toDoubleVector();
+
+        double[] returns = new double[size];
+        double[] advantages = new double[size];
+        advantageEstimator.estimate(rewards, values, terminals, values[size - 1], 0, 1, size, returns, advantages);
+
+        // The advantage of each element goes in the column (or channel) of its action; the other actions are zero
+        double[] logSoftmaxData = new double[size * actionSpaceSize];
+        for (int i = 0; i < size; ++i) {
+            logSoftmaxData[recurrent ? actions[i] * size + i : i * actionSpaceSize + actions[i]] = advantages[i];
+        }
+
+        DataType dataType = expectedValues.dataType();
+        INDArray targets = recurrent ? Nd4j.create(returns, new long[]{1, 1, size}, dataType)
+                : Nd4j.create(returns, new long[]{size, 1}, dataType);
+        INDArray logSoftmax = recurrent ? Nd4j.create(logSoftmaxData, new long[]{1, actionSpaceSize, size}, dataType)
+                : Nd4j.create(logSoftmaxData, new long[]{size, actionSpaceSize}, dataType);
 
         // targets -> value, critic
         // logSoftmax -> policy, actor
-        return current.gradient(input, new INDArray[]{targets, logSoftmax});
+        return current.gradient(inputs, new INDArray[]{targets, logSoftmax});
     }
 }
@@ -0,0 +1,43 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Konduit K.K.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.deeplearning4j.rl4j.learning.async.distributed;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * A bidirectional, message-oriented connection. Messages are received whole and in the order they were sent.
+ * A connection is not thread-safe.
+ */
+public interface Connection extends Closeable {
+
+    /**
+     * Send a message.
+     *
+     * @param message The buffer holding the message
+     * @param length  The length of the message
+     */
+    void send(byte[] message, int length) throws IOException;
+
+    /**
+     * Wait for the next message.
+     *
+     * @throws java.io.EOFException if the connection was closed by the other side
+     */
+    byte[] receive() throws IOException;
+
+}
@@ -0,0 +1,70 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Konduit K.K.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.deeplearning4j.rl4j.learning.async.distributed;
+
+import org.deeplearning4j.nn.gradient.Gradient;
+import org.nd4j.linalg.api.buffer.DataBuffer;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * A lossy {@link GradientCodec} that halves the size of the gradients: each gradient is divided by the largest
+ * magnitude of its network and sent in half precision, so that small gradients do not fall in the subnormal range.
+ */
+public class Float16GradientCodec implements GradientCodec {
+
+    private byte[] bytes = new byte[0];
+
+    @Override
+    public void encode(Gradient[] gradient, DataOutput out) throws IOException {
+        for (Gradient g : gradient) {
+            DataBuffer data = g.gradient().data();
+            int length = (int) g.gradient().length();
+
+            float scale = 0.0f;
+            for (int i = 0; i < length; ++i) {
+                scale = Math.max(scale, Math.abs(data.getFloat(i)));
+            }
+
+            float inverseScale = scale == 0.0f ? 0.0f : 1.0f / scale;
+            bytes = GradientCodecs.ensureCapacity(bytes, length * Short.BYTES);
+            for (int i = 0; i < length; ++i) {
+                GradientCodecs.putShort(bytes, i * Short.BYTES, HalfPrecision.fromFloat(data.getFloat(i) * inverseScale));
+            }
+
+            out.writeInt(length);
+            out.writeFloat(scale);
+            out.write(bytes, 0, length * Short.BYTES);
+        }
+    }
+
+    @Override
+    public void decode(DataInput in, Gradient[] gradient) throws IOException {
+        for (Gradient g : gradient) {
+            DataBuffer data = g.gradient().data();
+            int length = GradientCodecs.readLength(in, g);
+            float scale = in.readFloat();
+            bytes = GradientCodecs.ensureCapacity(bytes, length * Short.BYTES);
+            in.readFully(bytes, 0, length * Short.BYTES);
+            for (int i = 0; i < length; ++i) {
+                data.put(i, HalfPrecision.toFloat(GradientCodecs.getShort(bytes, i * Short.BYTES)) * scale);
+            }
+        }
+    }
+}
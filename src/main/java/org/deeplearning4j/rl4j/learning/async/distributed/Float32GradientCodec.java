@@ -0,0 +1,60 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Konduit K.K.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.deeplearning4j.rl4j.learning.async.distributed;
+
+import org.deeplearning4j.nn.gradient.Gradient;
+import org.nd4j.linalg.api.buffer.DataBuffer;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * A lossless {@link GradientCodec}: the gradients are sent as 32-bit floats.
+ */
+public class Float32GradientCodec implements GradientCodec {
+
+    private byte[] bytes = new byte[0];
+
+    @Override
+    public void encode(Gradient[] gradient, DataOutput out) throws IOException {
+        for (Gradient g : gradient) {
+            DataBuffer data = g.gradient().data();
+            int length = (int) g.gradient().length();
+            bytes = GradientCodecs.ensureCapacity(bytes, length * Float.BYTES);
+            for (int i = 0; i < length; ++i) {
+                GradientCodecs.putInt(bytes, i * Float.BYTES, Float.floatToRawIntBits(data.getFloat(i)));
+            }
+
+            out.writeInt(length);
+            out.write(bytes, 0, length * Float.BYTES);
+        }
+    }
+
+    @Override
+    public void decode(DataInput in, Gradient[] gradient) throws IOException {
+        for (Gradient g : gradient) {
+            DataBuffer data = g.gradient().data();
+            int length = GradientCodecs.readLength(in, g);
+            bytes = GradientCodecs.ensureCapacity(bytes, length * Float.BYTES);
+            in.readFully(bytes, 0, length * Float.BYTES);
+            for (int i = 0; i < length; ++i) {
+                data.put(i, Float.intBitsToFloat(GradientCodecs.getInt(bytes, i * Float.BYTES)));
+            }
+        }
+    }
+}
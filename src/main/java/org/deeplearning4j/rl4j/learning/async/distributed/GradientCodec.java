@@ -0,0 +1,44 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Konduit K.K.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.deeplearning4j.rl4j.learning.async.distributed;
+
+import org.deeplearning4j.nn.gradient.Gradient;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Encodes the flat gradients pushed by the worker processes to the parameter server. The worker and the server must
+ * use the same kind of codec.
+ * <p>
+ * A codec may be lossy and may keep state between calls (for example to accumulate what was not sent); an instance is
+ * used by a single connection.
+ */
+public interface GradientCodec {
+
+    /**
+     * Encode the flat gradients of each underlying network
+     */
+    void encode(Gradient[] gradient, DataOutput out) throws IOException;
+
+    /**
+     * Decode into the flat gradients of each underlying network. The gradients have the same layout as the encoded ones.
+     */
+    void decode(DataInput in, Gradient[] gradient) throws IOException;
+
+}
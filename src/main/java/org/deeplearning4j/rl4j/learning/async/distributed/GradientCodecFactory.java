@@ -0,0 +1,45 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Konduit K.K.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.deeplearning4j.rl4j.learning.async.distributed;
+
+import org.deeplearning4j.rl4j.learning.configuration.LearningConfiguration;
+
+/**
+ * Builds the {@link GradientCodec} of the gradient compression selected in a {@link LearningConfiguration}
+ */
+public class GradientCodecFactory {
+
+    private GradientCodecFactory() {
+    }
+
+    public static GradientCodec create(LearningConfiguration configuration) {
+        switch (configuration.getGradientCompression()) {
+            case FLOAT16:
+                return new Float16GradientCodec();
+
+            case INT8:
+                return new Int8GradientCodec();
+
+            case TOP_K:
+                return new TopKGradientCodec(configuration.getGradientCompressionDensity());
+
+            case NONE:
+            default:
+                return new Float32GradientCodec();
+        }
+    }
+}
@@ -0,0 +1,114 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Konduit K.K.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.deeplearning4j.rl4j.learning.async.distributed;
+
+import org.deeplearning4j.nn.gradient.Gradient;
+
+import java.io.DataInput;
+import java.io.IOException;
+
+/**
+ * Helpers shared by the {@link GradientCodec} implementations
+ */
+final class GradientCodecs {
+
+    private GradientCodecs() {
+        // Utility class
+    }
+
+    /**
+     * Read the length of an encoded flat gradient and check it against the gradient that will receive it
+     */
+    static int readLength(DataInput in, Gradient gradient) throws IOException {
+        int length = in.readInt();
+        if (length != gradient.gradient().length()) {
+            throw new IOException("Expected a gradient of length " + gradient.gradient().length() + ", got " + length);
+        }
+        return length;
+    }
+
+    /**
+     * Find the k-th largest of the first length values, with a quickselect. The values are reordered.
+     */
+    static float selectLargest(float[] values, int length, int k) {
+        int target = length - k;
+        int left = 0;
+        int right = length - 1;
+        while (left < right) {
+            float pivot = values[(left + right) >>> 1];
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (values[i] < pivot) {
+                    ++i;
+                }
+                while (values[j] > pivot) {
+                    --j;
+                }
+                if (i <= j) {
+                    float value = values[i];
+                    values[i] = values[j];
+                    values[j] = value;
+                    ++i;
+                    --j;
+                }
+            }
+
+            // Now values[left..j] <= pivot, values[j+1..i-1] == pivot and values[i..right] >= pivot
+            if (target <= j) {
+                right = j;
+            } else if (target >= i) {
+                left = i;
+            } else {
+                return pivot;
+            }
+        }
+        return values[target];
+    }
+
+    /**
+     * @return bytes if it can hold size bytes, otherwise a new, large enough, array
+     */
+    static byte[] ensureCapacity(byte[] bytes, int size) {
+        return bytes.length >= size ? bytes : new byte[size];
+    }
+
+    // Big-endian, like DataOutput
+
+    static void putInt(byte[] bytes, int offset, int value) {
+        bytes[offset] = (byte) (value >>> 24);
+        bytes[offset + 1] = (byte) (value >>> 16);
+        bytes[offset + 2] = (byte) (value >>> 8);
+        bytes[offset + 3] = (byte) value;
+    }
+
+    static int getInt(byte[] bytes, int offset) {
+        return (bytes[offset] << 24)
+                | ((bytes[offset + 1] & 0xFF) << 16)
+                | ((bytes[offset + 2] & 0xFF) << 8)
+                | (bytes[offset + 3] & 0xFF);
+    }
+
+    static void putShort(byte[] bytes, int offset, short value) {
+        bytes[offset] = (byte) (value >>> 8);
+        bytes[offset + 1] = (byte) value;
+    }
+
+    static short getShort(byte[] bytes, int offset) {
+        return (short) ((bytes[offset] << 8) | (bytes[offset + 1] & 0xFF));
+    }
+}
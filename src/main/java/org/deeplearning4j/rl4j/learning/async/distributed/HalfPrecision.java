@@ -0,0 +1,82 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Konduit K.K.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.deeplearning4j.rl4j.learning.async.distributed;
+
+/**
+ * Conversions between float and IEEE 754 half precision (binary16) values, rounding to the nearest even.
+ */
+public final class HalfPrecision {
+
+    private HalfPrecision() {
+        // Utility class
+    }
+
+    public static short fromFloat(float value) {
+        int bits = Float.floatToRawIntBits(value);
+        int sign = (bits >>> 16) & 0x8000;
+        int magnitude = bits & 0x7fffffff;
+
+        if (magnitude >= 0x47800000) {
+            // NaN stays NaN, everything else overflows to infinity
+            return (short) (magnitude > 0x7f800000 ? sign | 0x7e00 : sign | 0x7c00);
+        }
+
+        if (magnitude >= 0x38800000) {
+            // Normal: rebias the exponent from 127 to 15 and drop 13 bits of mantissa. A carry into the exponent is
+            // the correct rounding, including to infinity.
+            int half = (magnitude - 0x38000000) >>> 13;
+            int remainder = magnitude & 0x1fff;
+            if (remainder > 0x1000 || (remainder == 0x1000 && (half & 1) != 0)) {
+                ++half;
+            }
+            return (short) (sign | half);
+        }
+
+        if (magnitude < 0x33000000) {
+            // Less than half the smallest subnormal
+            return (short) sign;
+        }
+
+        // Subnormal
+        int exponent = magnitude >>> 23;
+        int mantissa = (magnitude & 0x7fffff) | 0x800000;
+        int shift = 126 - exponent;
+        int half = mantissa >>> shift;
+        int remainder = mantissa & ((1 << shift) - 1);
+        int halfway = 1 << (shift - 1);
+        if (remainder > halfway || (remainder == halfway && (half & 1) != 0)) {
+            ++half;
+        }
+        return (short) (sign | half);
+    }
+
+    public static float toFloat(short value) {
+        int bits = value & 0xffff;
+        int sign = (bits & 0x8000) << 16;
+        int exponent = (bits >>> 10) & 0x1f;
+        int mantissa = bits & 0x3ff;
+
+        if (exponent == 0) {
+            float magnitude = mantissa * 0x1p-24f;
+            return sign == 0 ? magnitude : -magnitude;
+        }
+        if (exponent == 31) {
+            return Float.intBitsToFloat(sign | 0x7f800000 | (mantissa << 13));
+        }
+        return Float.intBitsToFloat(sign | ((exponent + 112) << 23) | (mantissa << 13));
+    }
+}
@@ -0,0 +1,96 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Konduit K.K.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.deeplearning4j.rl4j.learning.async.distributed;
+
+import org.deeplearning4j.nn.gradient.Gradient;
+import org.nd4j.linalg.api.buffer.DataBuffer;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * A lossy {@link GradientCodec} that sends the gradients as 8-bit integers: each gradient is divided by the largest
+ * magnitude of its network and rounded to one of 255 levels.
+ * <p>
+ * The rounding errors are not lost (error feedback): they are added to the next gradients, so that the gradients too
+ * small to be rounded to a non-zero level are eventually sent. Because of this, the encoder of a worker must always be
+ * used with the same network.
+ */
+public class Int8GradientCodec implements GradientCodec {
+
+    private static final int MAX_LEVEL = 127;
+
+    // Error feedback: the rounding errors, for each network
+    private float[][] residuals = null;
+    private byte[] levels = new byte[0];
+
+    @Override
+    public void encode(Gradient[] gradient, DataOutput out) throws IOException {
+        if (residuals == null) {
+            residuals = new float[gradient.length][];
+        }
+
+        for (int n = 0; n < gradient.length; ++n) {
+            DataBuffer data = gradient[n].gradient().data();
+            int length = (int) gradient[n].gradient().length();
+
+            if (residuals[n] == null) {
+                residuals[n] = new float[length];
+            }
+            if (levels.length < length) {
+                levels = new byte[length];
+            }
+
+            float[] residual = residuals[n];
+            float maxMagnitude = 0.0f;
+            for (int i = 0; i < length; ++i) {
+                residual[i] += data.getFloat(i);
+                maxMagnitude = Math.max(maxMagnitude, Math.abs(residual[i]));
+            }
+
+            float scale = maxMagnitude / MAX_LEVEL;
+            float inverseScale = scale == 0.0f ? 0.0f : 1.0f / scale;
+            for (int i = 0; i < length; ++i) {
+                int level = Math.round(residual[i] * inverseScale);
+                levels[i] = (byte) level;
+                residual[i] -= level * scale;
+            }
+
+            out.writeInt(length);
+            out.writeFloat(scale);
+            out.write(levels, 0, length);
+        }
+    }
+
+    @Override
+    public void decode(DataInput in, Gradient[] gradient) throws IOException {
+        for (Gradient g : gradient) {
+            DataBuffer data = g.gradient().data();
+            int length = GradientCodecs.readLength(in, g);
+            float scale = in.readFloat();
+
+            if (levels.length < length) {
+                levels = new byte[length];
+            }
+            in.readFully(levels, 0, length);
+            for (int i = 0; i < length; ++i) {
+                data.put(i, levels[i] * scale);
+            }
+        }
+    }
+}
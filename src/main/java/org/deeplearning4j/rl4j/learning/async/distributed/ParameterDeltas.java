@@ -0,0 +1,132 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Konduit K.K.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.deeplearning4j.rl4j.learning.async.distributed;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Encodes the parameter broadcasts of the {@link ParameterServer} as deltas from the parameters a worker already has.
+ * <p>
+ * Both sides keep a mirror of the worker parameters. The difference between the current parameters and the mirror is
+ * divided by its largest magnitude and sent in half precision, either densely or, when few elements changed by more
+ * than the threshold, as (index, value) pairs. Both sides add the decoded values to their mirror, so the rounding
+ * errors and the skipped elements stay in the difference and are sent with a later delta: the mirrors never drift
+ * from the server parameters by more than the rounding of the last delta (plus the threshold).
+ */
+final class ParameterDeltas {
+
+    private static final byte DENSE = 0;
+    private static final byte SPARSE = 1;
+
+    private ParameterDeltas() {
+        // Utility class
+    }
+
+    /**
+     * Write the full parameters
+     */
+    static void writeFull(float[] parameters, DataOutput out) throws IOException {
+        out.writeInt(parameters.length);
+        for (float value : parameters) {
+            out.writeFloat(value);
+        }
+    }
+
+    static void readFull(DataInput in, float[] parameters) throws IOException {
+        readLength(in, parameters);
+        for (int i = 0; i < parameters.length; ++i) {
+            parameters[i] = in.readFloat();
+        }
+    }
+
+    /**
+     * Write the delta between the parameters and the mirror, and add it to the mirror as the receiver will
+     *
+     * @param threshold The elements that changed by this much or less are not sent
+     * @return The number of elements sent
+     */
+    static int writeDelta(float[] parameters, float[] mirror, float threshold, DataOutput out) throws IOException {
+        float scale = 0.0f;
+        int count = 0;
+        for (int i = 0; i < parameters.length; ++i) {
+            float difference = Math.abs(parameters[i] - mirror[i]);
+            if (difference > threshold) {
+                scale = Math.max(scale, difference);
+                ++count;
+            }
+        }
+
+        out.writeInt(parameters.length);
+        float inverseScale = scale == 0.0f ? 0.0f : 1.0f / scale;
+
+        // A dense element takes 2 bytes, a sparse one 6
+        if (count * 3 < parameters.length) {
+            out.writeByte(SPARSE);
+            out.writeFloat(scale);
+            out.writeInt(count);
+            for (int i = 0; i < parameters.length; ++i) {
+                float difference = parameters[i] - mirror[i];
+                if (Math.abs(difference) > threshold) {
+                    short value = HalfPrecision.fromFloat(difference * inverseScale);
+                    out.writeInt(i);
+                    out.writeShort(value);
+                    mirror[i] += HalfPrecision.toFloat(value) * scale;
+                }
+            }
+        } else {
+            out.writeByte(DENSE);
+            out.writeFloat(scale);
+            for (int i = 0; i < parameters.length; ++i) {
+                short value = HalfPrecision.fromFloat((parameters[i] - mirror[i]) * inverseScale);
+                out.writeShort(value);
+                mirror[i] += HalfPrecision.toFloat(value) * scale;
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Read a delta and add it to the mirror
+     */
+    static void readDelta(DataInput in, float[] mirror) throws IOException {
+        readLength(in, mirror);
+        byte encoding = in.readByte();
+        float scale = in.readFloat();
+
+        if (encoding == SPARSE) {
+            int count = in.readInt();
+            for (int i = 0; i < count; ++i) {
+                int index = in.readInt();
+                mirror[index] += HalfPrecision.toFloat(in.readShort()) * scale;
+            }
+        } else {
+            for (int i = 0; i < mirror.length; ++i) {
+                mirror[i] += HalfPrecision.toFloat(in.readShort()) * scale;
+            }
+        }
+    }
+
+    private static void readLength(DataInput in, float[] parameters) throws IOException {
+        int length = in.readInt();
+        if (length != parameters.length) {
+            throw new IOException("Expected " + parameters.length + " parameters, got " + length);
+        }
+    }
+}
@@ -0,0 +1,288 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Konduit K.K.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.deeplearning4j.rl4j.learning.async.distributed;
+
+import lombok.extern.slf4j.Slf4j;
+import org.deeplearning4j.nn.gradient.Gradient;
+import org.deeplearning4j.rl4j.learning.async.GradientLayout;
+import org.deeplearning4j.rl4j.learning.async.IAsyncGlobal;
+import org.deeplearning4j.rl4j.learning.async.TargetSnapshot;
+import org.deeplearning4j.rl4j.network.ac.IActorCritic;
+import org.nd4j.linalg.api.ndarray.INDArray;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Serves an {@link IAsyncGlobal} to the {@link RemoteAsyncGlobal} of worker processes.
+ * <p>
+ * Each worker connection is handled by its own thread: the gradients it pushes are decoded and applied to the global,
+ * and the parameters of the global target are sent when it pulls a version it does not have yet. A worker gets the
+ * full parameters with its first pull, then only deltas (see {@link ParameterDeltas}).
+ * <p>
+ * The global can also be used by local workers at the same time.
+ */
+@Slf4j
+public class ParameterServer<NN extends IActorCritic> implements Closeable {
+
+    private static final long TRAINING_COMPLETE_POLL_MS = 100;
+
+    private final IAsyncGlobal<NN> asyncGlobal;
+    private final Transport transport;
+    private final Supplier<GradientCodec> codecFactory;
+    private final float deltaThreshold;
+
+    private final NN replica;
+    private ParameterSnapshot parameters = null;
+
+    private TransportServer server;
+    private final List<Connection> connections = new CopyOnWriteArrayList<>();
+    private volatile boolean isClosed = false;
+
+    private final AtomicLong fullBroadcastCount = new AtomicLong();
+    private final AtomicLong deltaBroadcastCount = new AtomicLong();
+    private final AtomicLong broadcastBytes = new AtomicLong();
+
+    /**
+     * Uses {@link Float16GradientCodec} and sends all the changed parameters
+     */
+    public ParameterServer(IAsyncGlobal<NN> asyncGlobal, Transport transport) {
+        this(asyncGlobal, transport, Float16GradientCodec::new, 0.0f);
+    }
+
+    /**
+     * @param asyncGlobal    The global to serve
+     * @param transport      The transport to listen on
+     * @param codecFactory   Creates the gradient codec of each connection; the workers must use the same kind
+     * @param deltaThreshold The parameters that changed by this much or less since they were last sent to a worker are
+     *                       not sent (yet)
+     */
+    public ParameterServer(IAsyncGlobal<NN> asyncGlobal, Transport transport, Supplier<GradientCodec> codecFactory, float deltaThreshold) {
+        this.asyncGlobal = asyncGlobal;
+        this.transport = transport;
+        this.codecFactory = codecFactory;
+        this.deltaThreshold = deltaThreshold;
+        this.replica = (NN) asyncGlobal.getTarget().replicateForInference();
+    }
+
+    /**
+     * Start accepting worker connections
+     *
+     * @return The transport server, for example to get the port of a {@link TcpTransport} listening on port 0
+     */
+    public TransportServer start() throws IOException {
+        server = transport.listen();
+
+        Thread acceptThread = new Thread(this::acceptConnections, "rl4j-parameter-server");
+        acceptThread.setDaemon(true);
+        acceptThread.start();
+
+        return server;
+    }
+
+    /**
+     * Wait until the global reports that the training is complete
+     */
+    public void awaitTrainingComplete() throws InterruptedException {
+        while (!asyncGlobal.isTrainingComplete() && !isClosed) {
+            Thread.sleep(TRAINING_COMPLETE_POLL_MS);
+        }
+    }
+
+    /**
+     * @return The number of times the full parameters were sent to a worker
+     */
+    public long getFullBroadcastCount() {
+        return fullBroadcastCount.get();
+    }
+
+    /**
+     * @return The number of times a parameter delta was sent to a worker
+     */
+    public long getDeltaBroadcastCount() {
+        return deltaBroadcastCount.get();
+    }
+
+    /**
+     * @return The total size, in bytes, of the parameter broadcasts
+     */
+    public long getBroadcastBytes() {
+        return broadcastBytes.get();
+    }
+
+    @Override
+    public void close() throws IOException {
+        isClosed = true;
+        if (server != null) {
+            server.close();
+        }
+        for (Connection connection : connections) {
+            connection.close();
+        }
+    }
+
+    private void acceptConnections() {
+        try {
+            while (!isClosed) {
+                Connection connection = server.accept();
+                connections.add(connection);
+
+                Thread connectionThread = new Thread(() -> serve(connection), "rl4j-parameter-server-connection");
+                connectionThread.setDaemon(true);
+                connectionThread.start();
+            }
+        } catch (IOException e) {
+            if (!isClosed) {
+                log.error("The parameter server stopped accepting connections.", e);
+            }
+        }
+    }
+
+    private void serve(Connection connection) {
+        ConnectionState state = new ConnectionState(codecFactory.get());
+        Protocol.MessageBuffer response = new Protocol.MessageBuffer();
+
+        try {
+            while (!isClosed) {
+                DataInputStream in = new DataInputStream(new ByteArrayInputStream(connection.receive()));
+                byte type = in.readByte();
+                DataOutputStream out = response.start();
+
+                switch (type) {
+                    case Protocol.LAYOUT:
+                        state.gradient = GradientLayout.read(in).allocate();
+                        writeStatus(out);
+                        break;
+
+                    case Protocol.GRADIENT:
+                        if (state.gradient == null) {
+                            throw new IOException("A gradient was received before its layout");
+                        }
+                        int batchSize = in.readInt();
+                        state.codec.decode(in, state.gradient);
+                        asyncGlobal.applyGradient(state.gradient, batchSize);
+                        writeStatus(out);
+                        break;
+
+                    case Protocol.PULL:
+                        long knownVersion = in.readLong();
+                        writeStatus(out);
+                        int statusSize = response.size();
+                        writeParameters(state, knownVersion, out);
+                        broadcastBytes.addAndGet(response.size() - statusSize);
+                        break;
+
+                    default:
+                        throw new IOException("Unknown message type: " + type);
+                }
+
+                response.sendTo(connection);
+            }
+        } catch (EOFException e) {
+            log.info("A worker disconnected.");
+        } catch (IOException e) {
+            if (!isClosed) {
+                log.error("Lost the connection with a worker.", e);
+            }
+        } finally {
+            connections.remove(connection);
+            try {
+                connection.close();
+            } catch (IOException e) {
+                // Nothing more to do
+            }
+        }
+    }
+
+    private void writeStatus(DataOutputStream out) throws IOException {
+        Protocol.writeStatus(out, asyncGlobal.isTrainingComplete(), asyncGlobal.getStepCount(), asyncGlobal.getWorkerUpdateCount());
+    }
+
+    private void writeParameters(ConnectionState state, long knownVersion, DataOutputStream out) throws IOException {
+        ParameterSnapshot current = getParameters();
+        out.writeLong(current.version);
+
+        boolean isWorkerInSync = state.mirror != null && knownVersion == state.mirrorVersion;
+        if (isWorkerInSync && knownVersion == current.version) {
+            out.writeByte(Protocol.NONE);
+            return;
+        }
+
+        if (!isWorkerInSync) {
+            out.writeByte(Protocol.FULL);
+            state.mirror = new float[current.values.length][];
+            for (int i = 0; i < current.values.length; ++i) {
+                state.mirror[i] = current.values[i].clone();
+                ParameterDeltas.writeFull(current.values[i], out);
+            }
+            fullBroadcastCount.incrementAndGet();
+        } else {
+            out.writeByte(Protocol.DELTA);
+            for (int i = 0; i < current.values.length; ++i) {
+                ParameterDeltas.writeDelta(current.values[i], state.mirror[i], deltaThreshold, out);
+            }
+            deltaBroadcastCount.incrementAndGet();
+        }
+        state.mirrorVersion = current.version;
+    }
+
+    // The parameters of the latest target, copied once per version for all the connections
+    private synchronized ParameterSnapshot getParameters() {
+        TargetSnapshot<NN> snapshot = asyncGlobal.getTargetSnapshot();
+        if (parameters == null || parameters.version != snapshot.getVersion()) {
+            snapshot.copyTo(replica);
+            INDArray[] params = replica.getParams();
+            float[][] values = new float[params.length][];
+            for (int i = 0; i < params.length; ++i) {
+                values[i] = params[i].toFloatVector();
+            }
+            parameters = new ParameterSnapshot(snapshot.getVersion(), values);
+        }
+        return parameters;
+    }
+
+    private static class ParameterSnapshot {
+        private final long version;
+        private final float[][] values;
+
+        private ParameterSnapshot(long version, float[][] values) {
+            this.version = version;
+            this.values = values;
+        }
+    }
+
+    private static class ConnectionState {
+        private final GradientCodec codec;
+        private Gradient[] gradient = null;
+
+        // The parameters the worker has, and their version
+        private float[][] mirror = null;
+        private long mirrorVersion = -1;
+
+        private ConnectionState(GradientCodec codec) {
+            this.codec = codec;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Konduit K.K.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.deeplearning4j.rl4j.learning.async.distributed;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * The messages exchanged by {@link RemoteAsyncGlobal} and {@link ParameterServer}. Each request from the worker gets
+ * exactly one response, which starts with the status of the training:
+ * <pre>
+ * request                                  response
+ * LAYOUT   gradient layout                 status
+ * GRADIENT batch size, encoded gradients   status
+ * PULL     known version                   status, version, NONE | FULL parameters | DELTA parameters
+ * </pre>
+ */
+final class Protocol {
+
+    static final byte LAYOUT = 1;
+    static final byte GRADIENT = 2;
+    static final byte PULL = 3;
+
+    static final byte NONE = 0;
+    static final byte FULL = 1;
+    static final byte DELTA = 2;
+
+    private Protocol() {
+        // Utility class
+    }
+
+    static void writeStatus(DataOutput out, boolean isTrainingComplete, int stepCount, int workerUpdateCount) throws IOException {
+        out.writeBoolean(isTrainingComplete);
+        out.writeInt(stepCount);
+        out.writeInt(workerUpdateCount);
+    }
+
+    /**
+     * A reusable buffer to build a message
+     */
+    static class MessageBuffer extends ByteArrayOutputStream {
+        private final DataOutputStream out = new DataOutputStream(this);
+
+        /**
+         * Clear the buffer and return a stream to write a new message
+         */
+        DataOutputStream start() {
+            reset();
+            return out;
+        }
+
+        void sendTo(Connection connection) throws IOException {
+            out.flush();
+            connection.send(buf, count);
+        }
+    }
+
+    static class Status {
+        final boolean isTrainingComplete;
+        final int stepCount;
+        final int workerUpdateCount;
+
+        private Status(boolean isTrainingComplete, int stepCount, int workerUpdateCount) {
+            this.isTrainingComplete = isTrainingComplete;
+            this.stepCount = stepCount;
+            this.workerUpdateCount = workerUpdateCount;
+        }
+
+        static Status read(DataInput in) throws IOException {
+            return new Status(in.readBoolean(), in.readInt(), in.readInt());
+        }
+    }
+}
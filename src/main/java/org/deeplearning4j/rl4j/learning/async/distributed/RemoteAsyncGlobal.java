@@ -0,0 +1,218 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Konduit K.K.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.deeplearning4j.rl4j.learning.async.distributed;
+
+import lombok.extern.slf4j.Slf4j;
+import org.deeplearning4j.nn.gradient.Gradient;
+import org.deeplearning4j.rl4j.learning.async.GradientLayout;
+import org.deeplearning4j.rl4j.learning.async.IAsyncGlobal;
+import org.deeplearning4j.rl4j.learning.async.TargetSnapshot;
+import org.deeplearning4j.rl4j.network.ac.IActorCritic;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * An {@link IAsyncGlobal} for the workers of another process: the gradients are pushed to a {@link ParameterServer}
+ * and the target network is pulled from it.
+ * <p>
+ * Each call to {@link #getTargetSnapshot()} asks the server for a newer version of the target, which is received as a
+ * delta from the parameters already received. The training status (completion, step and update counts) is the one
+ * of the server global, as of the last exchange.
+ * <p>
+ * The workers of this process share a single connection; the exchanges are serialized. If the connection fails, the
+ * training is reported as complete so that the workers stop.
+ */
+@Slf4j
+public class RemoteAsyncGlobal<NN extends IActorCritic> implements IAsyncGlobal<NN> {
+
+    private final NN target;
+    private final Connection connection;
+    private final GradientCodec codec;
+    private final Protocol.MessageBuffer request = new Protocol.MessageBuffer();
+
+    private final ReadWriteLock targetLock = new ReentrantReadWriteLock();
+    private volatile TargetSnapshot<NN> targetSnapshot;
+    private float[][] parameters = null;
+    private GradientLayout layout = null;
+
+    private volatile boolean isTrainingComplete = false;
+    private volatile int stepCount = 0;
+    private volatile int workerUpdateCount = 0;
+    private volatile boolean isTerminated = false;
+
+    /**
+     * Connect to the parameter server and pull the target network. Uses {@link Float16GradientCodec}.
+     *
+     * @param initial   A network with the same structure as the server's
+     * @param transport The transport to the server
+     */
+    public RemoteAsyncGlobal(NN initial, Transport transport) throws IOException {
+        this(initial, transport, new Float16GradientCodec());
+    }
+
+    /**
+     * Connect to the parameter server and pull the target network.
+     *
+     * @param initial   A network with the same structure as the server's
+     * @param transport The transport to the server
+     * @param codec     The gradient codec; the server must use the same kind
+     */
+    public RemoteAsyncGlobal(NN initial, Transport transport, GradientCodec codec) throws IOException {
+        this.target = (NN) initial.replicateForInference();
+        this.codec = codec;
+        this.targetSnapshot = new TargetSnapshot<>(-1, target, targetLock.readLock());
+        this.connection = transport.connect();
+
+        pull();
+    }
+
+    @Override
+    public boolean isTrainingComplete() {
+        return isTrainingComplete;
+    }
+
+    @Override
+    public int getWorkerUpdateCount() {
+        return workerUpdateCount;
+    }
+
+    @Override
+    public int getStepCount() {
+        return stepCount;
+    }
+
+    @Override
+    public NN getTarget() {
+        return target;
+    }
+
+    @Override
+    public synchronized TargetSnapshot<NN> getTargetSnapshot() {
+        if (!isTerminated) {
+            try {
+                pull();
+            } catch (IOException e) {
+                onConnectionFailure(e);
+            }
+        }
+        return targetSnapshot;
+    }
+
+    @Override
+    public synchronized void applyGradient(Gradient[] gradient, int batchSize) {
+        if (isTerminated) {
+            return;
+        }
+
+        try {
+            if (layout == null) {
+                layout = GradientLayout.of(gradient);
+                DataOutputStream out = request.start();
+                out.writeByte(Protocol.LAYOUT);
+                layout.write(out);
+                exchange();
+            }
+
+            DataOutputStream out = request.start();
+            out.writeByte(Protocol.GRADIENT);
+            out.writeInt(batchSize);
+            codec.encode(gradient, out);
+            exchange();
+        } catch (IOException e) {
+            onConnectionFailure(e);
+        }
+    }
+
+    @Override
+    public void terminate() {
+        isTerminated = true;
+        try {
+            connection.close();
+        } catch (IOException e) {
+            // Nothing more to do
+        }
+    }
+
+    private void pull() throws IOException {
+        DataOutputStream out = request.start();
+        out.writeByte(Protocol.PULL);
+        out.writeLong(targetSnapshot.getVersion());
+        DataInputStream in = exchange();
+
+        long version = in.readLong();
+        byte kind = in.readByte();
+        if (kind == Protocol.NONE) {
+            return;
+        }
+
+        INDArray[] targetParams = target.getParams();
+        if (parameters == null) {
+            parameters = new float[targetParams.length][];
+            for (int i = 0; i < targetParams.length; ++i) {
+                parameters[i] = new float[(int) targetParams[i].length()];
+            }
+        }
+
+        for (float[] networkParameters : parameters) {
+            if (kind == Protocol.FULL) {
+                ParameterDeltas.readFull(in, networkParameters);
+            } else {
+                ParameterDeltas.readDelta(in, networkParameters);
+            }
+        }
+
+        INDArray[] params = new INDArray[parameters.length];
+        for (int i = 0; i < parameters.length; ++i) {
+            params[i] = Nd4j.createFromArray(parameters[i]).reshape(targetParams[i].shape());
+        }
+
+        Lock writeLock = targetLock.writeLock();
+        writeLock.lock();
+        try {
+            target.copyFrom(params);
+        } finally {
+            writeLock.unlock();
+        }
+        targetSnapshot = new TargetSnapshot<>(version, target, targetLock.readLock());
+    }
+
+    private DataInputStream exchange() throws IOException {
+        request.sendTo(connection);
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(connection.receive()));
+
+        Protocol.Status status = Protocol.Status.read(in);
+        isTrainingComplete = status.isTrainingComplete;
+        stepCount = status.stepCount;
+        workerUpdateCount = status.workerUpdateCount;
+
+        return in;
+    }
+
+    private void onConnectionFailure(IOException e) {
+        log.error("Lost the connection with the parameter server; stopping.", e);
+        isTerminated = true;
+        isTrainingComplete = true;
+    }
+}
@@ -0,0 +1,124 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Konduit K.K.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.deeplearning4j.rl4j.learning.async.distributed;
+
+import lombok.Getter;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+
+/**
+ * A {@link Transport} over TCP. Each message is sent as its length followed by its bytes.
+ * <p>
+ * Use a loopback address to run the parameter server and the workers in several processes on the same machine.
+ */
+public class TcpTransport implements Transport {
+
+    private static final int MAX_MESSAGE_LENGTH = 1 << 30;
+
+    @Getter
+    private final String host;
+    @Getter
+    private final int port;
+
+    /**
+     * @param host The address of the parameter server
+     * @param port The port of the parameter server. When listening, 0 picks a free port (see {@link Server#getLocalPort()}).
+     */
+    public TcpTransport(String host, int port) {
+        this.host = host;
+        this.port = port;
+    }
+
+    @Override
+    public Connection connect() throws IOException {
+        return new TcpConnection(new Socket(host, port));
+    }
+
+    @Override
+    public Server listen() throws IOException {
+        return new Server(new ServerSocket(port, 50, InetAddress.getByName(host)));
+    }
+
+    public static class Server implements TransportServer {
+        private final ServerSocket serverSocket;
+
+        private Server(ServerSocket serverSocket) {
+            this.serverSocket = serverSocket;
+        }
+
+        /**
+         * @return The port the server listens on
+         */
+        public int getLocalPort() {
+            return serverSocket.getLocalPort();
+        }
+
+        @Override
+        public Connection accept() throws IOException {
+            return new TcpConnection(serverSocket.accept());
+        }
+
+        @Override
+        public void close() throws IOException {
+            serverSocket.close();
+        }
+    }
+
+    private static class TcpConnection implements Connection {
+        private final Socket socket;
+        private final DataInputStream in;
+        private final DataOutputStream out;
+
+        private TcpConnection(Socket socket) throws IOException {
+            this.socket = socket;
+            socket.setTcpNoDelay(true);
+            in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        }
+
+        @Override
+        public void send(byte[] message, int length) throws IOException {
+            out.writeInt(length);
+            out.write(message, 0, length);
+            out.flush();
+        }
+
+        @Override
+        public byte[] receive() throws IOException {
+            int length = in.readInt();
+            if (length < 0 || length > MAX_MESSAGE_LENGTH) {
+                throw new IOException("Invalid message length: " + length);
+            }
+
+            byte[] message = new byte[length];
+            in.readFully(message);
+            return message;
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+}
@@ -0,0 +1,131 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Konduit K.K.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.deeplearning4j.rl4j.learning.async.distributed;
+
+import org.deeplearning4j.nn.gradient.Gradient;
+import org.nd4j.common.base.Preconditions;
+import org.nd4j.linalg.api.buffer.DataBuffer;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * A lossy {@link GradientCodec} that only sends the largest gradients: for each network, the given fraction of the
+ * gradients with the largest magnitude are sent as (index, value) pairs and the others are considered to be 0.
+ * <p>
+ * The gradients that are not sent are not lost (error feedback): they are accumulated and added to the next gradients,
+ * so that they are eventually sent once they have grown large enough. Because of this, the encoder of a worker must
+ * always be used with the same network.
+ */
+public class TopKGradientCodec implements GradientCodec {
+
+    private final double density;
+
+    // Error feedback: what has not been sent yet, for each network
+    private float[][] residuals = null;
+    private float[] magnitudes = new float[0];
+
+    /**
+     * @param density The fraction of the gradients that are sent, in (0, 1]
+     */
+    public TopKGradientCodec(double density) {
+        Preconditions.checkArgument(density > 0.0 && density <= 1.0, "density must be in (0, 1], got %s", density);
+        this.density = density;
+    }
+
+    @Override
+    public void encode(Gradient[] gradient, DataOutput out) throws IOException {
+        if (residuals == null) {
+            residuals = new float[gradient.length][];
+        }
+
+        for (int n = 0; n < gradient.length; ++n) {
+            DataBuffer data = gradient[n].gradient().data();
+            int length = (int) gradient[n].gradient().length();
+
+            if (residuals[n] == null) {
+                residuals[n] = new float[length];
+            }
+            if (magnitudes.length < length) {
+                magnitudes = new float[length];
+            }
+
+            float[] residual = residuals[n];
+            for (int i = 0; i < length; ++i) {
+                residual[i] += data.getFloat(i);
+                magnitudes[i] = Math.abs(residual[i]);
+            }
+
+            int k = Math.max(1, (int) Math.ceil(density * length));
+            float threshold = k >= length ? 0.0f : GradientCodecs.selectLargest(magnitudes, length, k);
+
+            // With a threshold of 0, only send the non-zero gradients; there are less than k of them.
+            int count = k;
+            if (threshold == 0.0f) {
+                count = 0;
+                for (int i = 0; i < length; ++i) {
+                    if (residual[i] != 0.0f) {
+                        ++count;
+                    }
+                }
+            }
+
+            out.writeInt(length);
+            out.writeInt(count);
+
+            // The magnitudes above the threshold first, then enough of those equal to it
+            int remaining = count;
+            for (int i = 0; i < length && remaining > 0; ++i) {
+                if (Math.abs(residual[i]) > threshold) {
+                    writeEntry(residual, i, out);
+                    --remaining;
+                }
+            }
+            for (int i = 0; i < length && remaining > 0; ++i) {
+                if (Math.abs(residual[i]) == threshold) {
+                    writeEntry(residual, i, out);
+                    --remaining;
+                }
+            }
+        }
+    }
+
+    private static void writeEntry(float[] residual, int index, DataOutput out) throws IOException {
+        out.writeInt(index);
+        out.writeFloat(residual[index]);
+        residual[index] = 0.0f;
+    }
+
+    @Override
+    public void decode(DataInput in, Gradient[] gradient) throws IOException {
+        for (Gradient g : gradient) {
+            DataBuffer data = g.gradient().data();
+            int length = GradientCodecs.readLength(in, g);
+            int count = in.readInt();
+
+            g.gradient().assign(0);
+            for (int j = 0; j < count; ++j) {
+                int index = in.readInt();
+                if (index < 0 || index >= length) {
+                    throw new IOException("Gradient index out of range: " + index);
+                }
+                data.put(index, in.readFloat());
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Konduit K.K.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.deeplearning4j.rl4j.learning.async.distributed;
+
+import java.io.IOException;
+
+/**
+ * Carries the messages between the {@link RemoteAsyncGlobal} of the worker processes and the {@link ParameterServer}.
+ */
+public interface Transport {
+
+    /**
+     * Connect to the parameter server. Used by the worker processes.
+     */
+    Connection connect() throws IOException;
+
+    /**
+     * Start accepting the connections of the workers. Used by the parameter server.
+     */
+    TransportServer listen() throws IOException;
+
+}
@@ -0,0 +1,45 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Konduit K.K.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.deeplearning4j.rl4j.learning.configuration;
+
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.experimental.SuperBuilder;
+
+@Data
+@SuperBuilder
+@EqualsAndHashCode(callSuper = true)
+public class A2CLearningConfiguration extends LearningConfiguration implements ILearningConfiguration {
+
+    /**
+     * The number of environments that are stepped in lockstep. Each training iteration uses
+     * numEnvironments * nStep experience elements.
+     */
+    @Builder.Default
+    private int numEnvironments = 8;
+
+    /**
+     * The number of threads that transform the observations of the environments. With preprocessing threads, the
+     * observation of an environment is transformed while the next environments are stepped, which helps when both
+     * the environment step (e.g. rendering) and the preprocessing of the observations are expensive.
+     * <p>
+     * If this is set to 0 then the observations are transformed on the training thread
+     */
+    @Builder.Default
+    private int preprocessingThreads = 0;
+}
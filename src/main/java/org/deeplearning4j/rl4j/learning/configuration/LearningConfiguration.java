@@ -20,6 +20,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.experimental.SuperBuilder;
+import org.nd4j.linalg.api.buffer.DataType;
 
 @Data
 @SuperBuilder
@@ -61,6 +62,15 @@ public class LearningConfiguration implements ILearningConfiguration {
      */
     private int numThreads;
 
+    /**
+     * The number of epochs a worker runs before giving its thread back to the worker executor, so that more workers
+     * than executor threads can take turns. See {@link org.deeplearning4j.rl4j.learning.async.AsyncLearning#setWorkerExecutor}
+     * <p>
+     * If this is set to -1 then each worker keeps its thread until it stops
+     */
+    @Builder.Default
+    private int workerEpochsPerTask = -1;
+
     /**
      * The number of steps to calculate gradients over
      */
@@ -74,4 +84,204 @@ public class LearningConfiguration implements ILearningConfiguration {
     @Builder.Default
     private int learnerUpdateFrequency = -1;
 
+    /**
+     * How the gradients of the worker threads are applied to the global network.
+     */
+    @Builder.Default
+    private GlobalUpdateMode globalUpdateMode = GlobalUpdateMode.LOCKED;
+
+    /**
+     * The number of worker gradients that are summed and applied to the global network as a single update.
+     * Only used with the LOCKED global update mode.
+     * <p>
+     * If this is set to 1 then each worker gradient is applied as its own update
+     */
+    @Builder.Default
+    private int gradientCoalescingWindow = 1;
+
+    /**
+     * The maximum time, in milliseconds, that a worker gradient can wait to be coalesced. When exceeded, the
+     * gradients accumulated so far are applied even if the coalescing window is not full.
+     */
+    @Builder.Default
+    private long gradientCoalescingMaxLatency = 50;
+
+    /**
+     * The maximum number of worker gradients waiting to be applied. Only used with the QUEUED global update mode.
+     */
+    @Builder.Default
+    private int gradientQueueCapacity = 16;
+
+    /**
+     * What a worker thread does when the gradient queue is full. Only used with the QUEUED global update mode.
+     */
+    @Builder.Default
+    private GradientQueueBackpressure gradientQueueBackpressure = GradientQueueBackpressure.BLOCK;
+
+    /**
+     * The maximum staleness of a worker gradient, i.e. the number of worker updates that were applied to the global
+     * network since the target the gradient was computed from. Only used with the QUEUED global update mode.
+     * <p>
+     * If this is set to -1 then the staleness is not bounded
+     */
+    @Builder.Default
+    private int maxGradientStaleness = -1;
+
+    /**
+     * What is done with the gradients that exceed the maximum staleness.
+     */
+    @Builder.Default
+    private StaleGradientPolicy staleGradientPolicy = StaleGradientPolicy.DROP;
+
+    /**
+     * How the worker gradients are compressed before being applied to the global network. The compression is lossy
+     * except for NONE; the sparsification and quantization errors are fed back into the next gradients of the worker.
+     * <p>
+     * Only used with the QUEUED global update mode: the worker threads queue their encoded gradients, which take less
+     * memory and are cheaper to copy, and the learner thread decodes them. The other global update modes would decode
+     * the gradients on the worker thread that has just encoded them.
+     * <p>
+     * INT8 and TOP_K remove the encoded values from the error feedback of the worker as soon as they are encoded, so a
+     * dropped gradient would be lost for good. They are rejected when gradients can be dropped: a DROP_OLDEST or
+     * DROP_NEWEST {@link #gradientQueueBackpressure}, or a {@link #maxGradientStaleness} with the DROP
+     * {@link #staleGradientPolicy}. Use BLOCK and DOWN_WEIGHT with them instead. FLOAT16 has no error feedback and
+     * can be used with any policy.
+     * <p>
+     * To train against a {@link org.deeplearning4j.rl4j.learning.async.distributed.RemoteAsyncGlobal}, give the codec
+     * to the remote global instead.
+     */
+    @Builder.Default
+    private GradientCompression gradientCompression = GradientCompression.NONE;
+
+    /**
+     * The fraction of the gradients sent by the TOP_K gradient compression.
+     */
+    @Builder.Default
+    private double gradientCompressionDensity = 0.01;
+
+    /**
+     * The data type of the network copy of the inference server (see {@link #inferenceBatchSize}). With FLOAT16 or
+     * BFLOAT16, this copy takes half the memory of an FP32 copy and is refreshed from the FP32 target with half the
+     * bandwidth; the gradients are still computed and applied in the data type of the global network.
+     * <p>
+     * Only used with the inference server: each worker thread needs its own copy in the data type of the global network
+     * to compute the gradients, so a reduced precision copy per worker would add memory instead of saving it.
+     * <p>
+     * On the CPU backend, the reduced precision layers can be much slower than the FP32 ones.
+     */
+    @Builder.Default
+    private DataType actorDataType = DataType.FLOAT;
+
+    /**
+     * The maximum number of observations batched together by the shared inference server of the A3C worker threads.
+     * <p>
+     * If this is set to 0 then each worker thread selects its actions with its own copy of the network
+     */
+    @Builder.Default
+    private int inferenceBatchSize = 0;
+
+    /**
+     * The maximum time, in microseconds, that the inference server waits to fill a batch.
+     */
+    @Builder.Default
+    private long inferenceMaxLatencyMicros = 200;
+
+    /**
+     * How the actor-critic algorithms estimate the advantages and the critic targets.
+     */
+    @Builder.Default
+    private AdvantageEstimation advantageEstimation = AdvantageEstimation.N_STEP;
+
+    /**
+     * The lambda parameter of the GAE and TD(lambda) advantage estimations. Not used by N_STEP.
+     */
+    @Builder.Default
+    private double lambda = 0.95;
+
+    public enum GlobalUpdateMode {
+        /**
+         * The gradients are applied one at a time while holding a global lock.
+         */
+        LOCKED,
+
+        /**
+         * The gradients are applied concurrently, without any lock, directly onto the global parameters (Hogwild!).
+         */
+        HOGWILD,
+
+        /**
+         * The worker threads put their gradients in a bounded queue and immediately continue; a dedicated learner
+         * thread applies them to the global network.
+         */
+        QUEUED,
+    }
+
+    public enum GradientQueueBackpressure {
+        /**
+         * The worker thread waits until there is room in the queue.
+         */
+        BLOCK,
+
+        /**
+         * The oldest gradient in the queue is dropped to make room.
+         */
+        DROP_OLDEST,
+
+        /**
+         * The new gradient is dropped.
+         */
+        DROP_NEWEST,
+    }
+
+    public enum StaleGradientPolicy {
+        /**
+         * The gradient is dropped.
+         */
+        DROP,
+
+        /**
+         * The gradient is scaled by 1 / (1 + staleness - maxGradientStaleness) before being applied.
+         */
+        DOWN_WEIGHT,
+    }
+
+    public enum GradientCompression {
+        /**
+         * The gradients are applied as computed.
+         */
+        NONE,
+
+        /**
+         * The gradients are rounded to half precision.
+         */
+        FLOAT16,
+
+        /**
+         * The gradients are quantized to 8-bit integers.
+         */
+        INT8,
+
+        /**
+         * Only the largest gradients are applied (see gradientCompressionDensity).
+         */
+        TOP_K,
+    }
+
+    public enum AdvantageEstimation {
+        /**
+         * The discounted n-step returns.
+         */
+        N_STEP,
+
+        /**
+         * Generalized Advantage Estimation, GAE(gamma, lambda).
+         */
+        GAE,
+
+        /**
+         * The TD(lambda) returns as the critic targets, with the n-step advantages for the actor.
+         */
+        TD_LAMBDA,
+    }
+
 }
@@ -0,0 +1,453 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Konduit K.K.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.deeplearning4j.rl4j.learning.sync.a2c.discrete;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.deeplearning4j.gym.StepReply;
+import org.deeplearning4j.nn.gradient.Gradient;
+import org.deeplearning4j.rl4j.learning.IEpochTrainer;
+import org.deeplearning4j.rl4j.learning.Learning;
+import org.deeplearning4j.rl4j.learning.advantage.AdvantageEstimator;
+import org.deeplearning4j.rl4j.learning.advantage.AdvantageEstimatorFactory;
+import org.deeplearning4j.rl4j.learning.configuration.A2CLearningConfiguration;
+import org.deeplearning4j.rl4j.learning.listener.TrainingListener;
+import org.deeplearning4j.rl4j.learning.listener.TrainingListenerList;
+import org.deeplearning4j.rl4j.mdp.MDP;
+import org.deeplearning4j.rl4j.network.ac.IActorCritic;
+import org.deeplearning4j.rl4j.observation.Observation;
+import org.deeplearning4j.rl4j.policy.ACPolicy;
+import org.deeplearning4j.rl4j.space.DiscreteSpace;
+import org.deeplearning4j.rl4j.space.Encodable;
+import org.deeplearning4j.rl4j.util.IDataManager;
+import org.deeplearning4j.rl4j.util.LegacyMDPWrapper;
+import org.nd4j.common.base.Preconditions;
+import org.nd4j.linalg.api.buffer.DataType;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.rng.Random;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.indexing.INDArrayIndex;
+import org.nd4j.linalg.indexing.NDArrayIndex;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Synchronous Advantage Actor-Critic (A2C) in the Discrete Domain
+ * <p>
+ * Instead of having one thread per environment like {@link org.deeplearning4j.rl4j.learning.async.a3c.discrete.A3CDiscrete A3CDiscrete},
+ * A2C steps {@link A2CLearningConfiguration#getNumEnvironments() numEnvironments} copies of the MDP in lockstep on a single thread:
+ * <ul>
+ *   <li>Each step, the observations of all environments are evaluated by a single batched forward pass.</li>
+ *   <li>After nStep steps, the experience of all environments is used to compute one gradient which is applied to the network.</li>
+ * </ul>
+ * The value estimates from the forward passes of the rollout are reused to compute the advantages, since the network
+ * does not change during a rollout.
+ * <p>
+ * Finished episodes are reset automatically. An episode that reaches maxEpochStep is ended like a terminal one.
+ * Recurrent networks are not supported. With multi-channel observations, each channel is batched in its own input and
+ * the actor-critic must have one input per channel.
+ * <p>
+ * With {@link A2CLearningConfiguration#getPreprocessingThreads() preprocessingThreads}, the observation of each
+ * environment is transformed by a pool of threads while the next environments are stepped; the observations are
+ * awaited, in the order of the environments, before the next forward pass.
+ */
+@Slf4j
+public class A2CDiscrete<OBSERVATION extends Encodable> extends Learning<OBSERVATION, Integer, DiscreteSpace, IActorCritic>
+        implements IEpochTrainer {
+
+    @Getter
+    final private A2CLearningConfiguration configuration;
+    @Getter
+    final private MDP<OBSERVATION, Integer, DiscreteSpace> mdp;
+    final private IActorCritic iActorCritic;
+    @Getter
+    final private ACPolicy<OBSERVATION> policy;
+    final private Random rnd;
+    final private AdvantageEstimator advantageEstimator;
+
+    private final TrainingListenerList listeners = new TrainingListenerList();
+
+    /**
+     * The number of environment episodes that have been completed
+     */
+    @Getter
+    private int episodeCount = 0;
+
+    private EnvironmentState[] environments;
+    private ThreadPoolExecutor preprocessingExecutor;
+
+    public A2CDiscrete(MDP<OBSERVATION, Integer, DiscreteSpace> mdp, IActorCritic iActorCritic, A2CLearningConfiguration conf) {
+        Preconditions.checkArgument(!iActorCritic.isRecurrent(), "A2CDiscrete does not support recurrent networks");
+        Preconditions.checkArgument(conf.getNumEnvironments() > 0, "numEnvironments must be greater than 0, got %s", conf.getNumEnvironments());
+        Preconditions.checkArgument(conf.getNStep() > 0, "nStep must be greater than 0, got %s", conf.getNStep());
+
+        this.iActorCritic = iActorCritic;
+        this.mdp = mdp;
+        this.configuration = conf;
+
+        Long seed = conf.getSeed();
+        rnd = Nd4j.getRandom();
+        if (seed != null) {
+            rnd.setSeed(seed);
+        }
+
+        policy = new ACPolicy<>(iActorCritic, rnd);
+        advantageEstimator = AdvantageEstimatorFactory.create(conf);
+    }
+
+    public IActorCritic getNeuralNet() {
+        return iActorCritic;
+    }
+
+    /**
+     * Add a {@link TrainingListener} listener at the end of the listener list.
+     *
+     * @param listener the listener to be added
+     */
+    public void addListener(TrainingListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * The number of steps in the current episode of the first environment
+     */
+    @Override
+    public int getCurrentEpisodeStepCount() {
+        return environments == null ? 0 : environments[0].episodeStepCount;
+    }
+
+    /**
+     * This method will train the model<p>
+     * The training stop when:<br>
+     * - The number of steps reaches maxStep<br>
+     * OR<br>
+     * - a listener explicitly stops it<br>
+     */
+    public void train() {
+        log.info("A2CDiscrete training starting.");
+
+        boolean canContinue = listeners.notifyTrainingStarted();
+        if (canContinue) {
+            initEnvironments();
+
+            while (getStepCount() < configuration.getMaxStep()) {
+                if (!listeners.notifyNewEpoch(this)) {
+                    break;
+                }
+
+                double rolloutReward = trainEpoch();
+                incrementEpoch();
+
+                IDataManager.StatEntry statEntry = new A2CStatEntry(getStepCount(), getEpochCount(), rolloutReward / environments.length, iActorCritic.getLatestScore());
+                if (!listeners.notifyEpochTrainingResult(this, statEntry)) {
+                    break;
+                }
+            }
+
+            for (EnvironmentState environment : environments) {
+                environment.mdp.close();
+            }
+            if (preprocessingExecutor != null) {
+                preprocessingExecutor.shutdown();
+            }
+        }
+
+        listeners.notifyTrainingFinished();
+    }
+
+    private void initEnvironments() {
+        int numEnvironments = configuration.getNumEnvironments();
+
+        int preprocessingThreads = configuration.getPreprocessingThreads();
+        if (preprocessingThreads > 0) {
+            // Each environment has at most one observation being transformed, so the queue is never full
+            preprocessingExecutor = new ThreadPoolExecutor(preprocessingThreads, preprocessingThreads, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(numEnvironments), runnable -> {
+                        Thread thread = new Thread(runnable, "rl4j-preprocessing");
+                        thread.setDaemon(true);
+                        return thread;
+                    }, new ThreadPoolExecutor.CallerRunsPolicy());
+        }
+
+        environments = new EnvironmentState[numEnvironments];
+        for (int i = 0; i < numEnvironments; ++i) {
+            MDP<OBSERVATION, Integer, DiscreteSpace> environmentMdp = i == 0 ? mdp : mdp.newInstance();
+            LegacyMDPWrapper<OBSERVATION, Integer, DiscreteSpace> environmentWrapper = new LegacyMDPWrapper<>(environmentMdp, getHistoryProcessor());
+            environmentWrapper.setPreprocessingExecutor(preprocessingExecutor);
+            environments[i] = new EnvironmentState(environmentWrapper);
+            resetEnvironment(environments[i]);
+        }
+    }
+
+    private int[] getObservationShape() {
+        return getHistoryProcessor() == null
+                ? mdp.getObservationSpace().getShape()
+                : getHistoryProcessor().getConf().getShape();
+    }
+
+    /**
+     * @return One [size, channel shape] array per channel of the observations
+     */
+    private INDArray[] createObservationBatch(int size) {
+        Observation observation = environments[0].observation;
+        int numChannels = observation.getNumChannels();
+        if (numChannels == 1) {
+            return new INDArray[]{Nd4j.create(Learning.makeShape(size, getObservationShape()))};
+        }
+
+        INDArray[] batch = new INDArray[numChannels];
+        for (int channel = 0; channel < numChannels; ++channel) {
+            // The channel data has a batch dimension of 1
+            long[] shape = observation.getChannelData(channel).shape().clone();
+            shape[0] = size;
+            batch[channel] = Nd4j.create(shape);
+        }
+        return batch;
+    }
+
+    /**
+     * Copy the current observation of each environment in the rows [offset, offset + numEnvironments) of the batch.
+     *
+     * @return The rows of the batch, one array per channel
+     */
+    private INDArray[] putObservations(INDArray[] batch, int offset) {
+        INDArray[] rows = new INDArray[batch.length];
+        for (int channel = 0; channel < batch.length; ++channel) {
+            rows[channel] = batch[channel].get(rowInterval(batch[channel], offset, offset + environments.length));
+        }
+
+        for (int i = 0; i < environments.length; ++i) {
+            Observation observation = environments[i].observation;
+            Preconditions.checkArgument(observation.getNumChannels() == batch.length,
+                    "All the observations must have %s channels, got %s", batch.length, observation.getNumChannels());
+            for (int channel = 0; channel < batch.length; ++channel) {
+                rows[channel].putRow(i, observation.getChannelData(channel));
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Play nStep steps on all environments, then compute and apply the gradient.
+     *
+     * @return the sum of the rewards of all environments during the rollout
+     */
+    private double trainEpoch() {
+        int numEnvironments = environments.length;
+        int nStep = configuration.getNStep();
+        int size = nStep * numEnvironments;
+        int numActions = mdp.getActionSpace().getSize();
+
+        // Element (t, i) -- step t of environment i -- is stored at index t * numEnvironments + i
+        INDArray[] observations = createObservationBatch(size);
+        int[] actions = new int[size];
+        double[] rewards = new double[size];
+        double[] values = new double[size];
+        boolean[] terminals = new boolean[size];
+        int[] stepActions = new int[numEnvironments];
+
+        double rolloutReward = 0;
+
+        for (int t = 0; t < nStep; ++t) {
+            int offset = t * numEnvironments;
+            if (t > 0) {
+                rolloutReward += awaitObservations(offset - numEnvironments, actions, rewards, terminals);
+            }
+
+            INDArray[] stepObservations = putObservations(observations, offset);
+
+            INDArray[] output = iActorCritic.outputAll(stepObservations);
+            policy.nextActionsFromProbabilities(output[1], stepActions);
+
+            for (int i = 0; i < numEnvironments; ++i) {
+                int idx = offset + i;
+
+                actions[idx] = stepActions[i];
+                values[idx] = output[0].getDouble(i, 0);
+
+                rolloutReward += stepEnvironment(i, actions[idx], idx, rewards, terminals);
+            }
+        }
+        rolloutReward += awaitObservations((nStep - 1) * numEnvironments, actions, rewards, terminals);
+
+        // Bootstrap the returns with the value of the observations following the rollout
+        INDArray[] lastObservations = putObservations(createObservationBatch(numEnvironments), 0);
+        INDArray bootstrapValues = iActorCritic.outputAll(lastObservations)[0];
+
+        double[] returns = new double[size];
+        double[] advantages = new double[size];
+        for (int i = 0; i < numEnvironments; ++i) {
+            advantageEstimator.estimate(rewards, values, terminals, bootstrapValues.getDouble(i, 0),
+                    i, numEnvironments, nStep, returns, advantages);
+        }
+
+        // The advantage of each element goes in the column of its action; the other actions are zero
+        double[] logSoftmaxData = new double[size * numActions];
+        for (int idx = 0; idx < size; ++idx) {
+            logSoftmaxData[idx * numActions + actions[idx]] = advantages[idx];
+        }
+
+        DataType dataType = bootstrapValues.dataType();
+        INDArray targets = Nd4j.create(returns, new long[]{size, 1}, dataType);
+        INDArray logSoftmax = Nd4j.create(logSoftmaxData, new long[]{size, numActions}, dataType);
+
+        // targets -> value, critic
+        // logSoftmax -> policy, actor
+        Gradient[] gradient = iActorCritic.gradient(observations, new INDArray[]{targets, logSoftmax});
+        iActorCritic.applyGradient(gradient, size);
+
+        return rolloutReward;
+    }
+
+    private static INDArrayIndex[] rowInterval(INDArray array, int from, int to) {
+        INDArrayIndex[] indexes = new INDArrayIndex[array.rank()];
+        indexes[0] = NDArrayIndex.interval(from, to);
+        for (int i = 1; i < indexes.length; ++i) {
+            indexes[i] = NDArrayIndex.all();
+        }
+        return indexes;
+    }
+
+    /**
+     * Step an environment, store its reward and terminal flag at idx, and reset it if its episode is complete.
+     *
+     * @return the reward, before the reward factor
+     */
+    private double stepEnvironment(int environmentIndex, int action, int idx, double[] rewards, boolean[] terminals) {
+        EnvironmentState environment = environments[environmentIndex];
+
+        double reward = step(environment, action);
+        rewards[idx] += reward * configuration.getRewardFactor();
+
+        boolean isEpisodeComplete = environment.mdp.isDone() || environment.episodeStepCount >= configuration.getMaxEpochStep();
+        terminals[idx] = isEpisodeComplete;
+        if (isEpisodeComplete) {
+            // The transform process of the environment must be idle before it is reset
+            awaitObservation(environment);
+            finishEpisode(environment, environmentIndex);
+            resetEnvironment(environment);
+        }
+
+        return reward;
+    }
+
+    /**
+     * Step the environment until an observation that is not skipped is returned, repeating the same action. The
+     * observation may still be being transformed (see {@link #awaitObservations(int, int[], double[], boolean[])}).
+     *
+     * @return the accumulated reward
+     */
+    private double step(EnvironmentState environment, int action) {
+        double reward = 0;
+        StepReply<CompletableFuture<Observation>> stepReply;
+        do {
+            stepReply = environment.mdp.stepAsync(action);
+            reward += stepReply.getReward();
+            incrementStep();
+            ++environment.episodeStepCount;
+        } while (isSkipped(stepReply.getObservation()) && !stepReply.isDone());
+
+        environment.pendingObservation = stepReply.getObservation();
+        environment.episodeReward += reward;
+
+        return reward;
+    }
+
+    // An observation that is still being transformed is not known to be skipped yet
+    private static boolean isSkipped(CompletableFuture<Observation> observation) {
+        return observation.isDone() && observation.join().isSkipped();
+    }
+
+    /**
+     * Wait for the observations being transformed, in the order of the environments. An environment whose observation
+     * turns out to be skipped (by a transform rather than by a filter) is stepped again with the same action; its
+     * rewards and terminal flag go to the same element of the rollout.
+     *
+     * @param offset The index in the rollout of the last step of the first environment
+     * @return the reward of the additional steps, before the reward factor
+     */
+    private double awaitObservations(int offset, int[] actions, double[] rewards, boolean[] terminals) {
+        double reward = 0;
+        for (int i = 0; i < environments.length; ++i) {
+            EnvironmentState environment = environments[i];
+            awaitObservation(environment);
+            while (environment.observation.isSkipped()) {
+                reward += stepEnvironment(i, actions[offset + i], offset + i, rewards, terminals);
+                awaitObservation(environment);
+            }
+        }
+        return reward;
+    }
+
+    private static void awaitObservation(EnvironmentState environment) {
+        if (environment.pendingObservation != null) {
+            environment.observation = environment.pendingObservation.join();
+            environment.pendingObservation = null;
+        }
+    }
+
+    private void resetEnvironment(EnvironmentState environment) {
+        environment.episodeStepCount = 0;
+        environment.episodeReward = 0;
+
+        Observation observation = environment.mdp.reset();
+
+        Integer action = environment.mdp.getActionSpace().noOp(); //by convention should be the NO_OP
+        while (observation.isSkipped() && !environment.mdp.isDone()) {
+            StepReply<Observation> stepReply = environment.mdp.step(action);
+
+            environment.episodeReward += stepReply.getReward();
+            observation = stepReply.getObservation();
+
+            incrementStep();
+            ++environment.episodeStepCount;
+        }
+
+        environment.observation = observation;
+    }
+
+    private void finishEpisode(EnvironmentState environment, int environmentIndex) {
+        ++episodeCount;
+        log.info("Environment-{} Episode step: {}, Episode: {}, Epoch: {}, reward: {}", environmentIndex, environment.episodeStepCount, episodeCount, getEpochCount(), environment.episodeReward);
+    }
+
+    private static class EnvironmentState {
+        private final LegacyMDPWrapper<?, Integer, DiscreteSpace> mdp;
+        private Observation observation;
+        private CompletableFuture<Observation> pendingObservation;
+        private int episodeStepCount;
+        private double episodeReward;
+
+        private EnvironmentState(LegacyMDPWrapper<?, Integer, DiscreteSpace> mdp) {
+            this.mdp = mdp;
+        }
+    }
+
+    @AllArgsConstructor
+    @Value
+    public static class A2CStatEntry implements IDataManager.StatEntry {
+        int stepCounter;
+        int epochCounter;
+        double reward;
+        double score;
+    }
+}
@@ -39,7 +39,7 @@ public class CartpoleEnvironment implements Environment<Integer> {
     private double xDot;
     private double theta;
     private double thetaDot;
-    private Integer stepsBeyondDone;
+    private int stepsBeyondDone = -1; // -1 until the episode is finished
     public CartpoleEnvironment() {
         rnd = new Random();
     }
@@ -55,21 +55,64 @@ public class CartpoleEnvironment implements Environment<Integer> {
 
     @Override
     public Map<String, Object> reset() {
+        resetState();
 
+        return new HashMap<String, Object>() {{
+            put("data", new double[]{x, xDot, theta, thetaDot});
+        }};
+    }
+
+    /**
+     * Same as {@link #reset()}, but the observation is written in a caller-supplied array instead of being allocated.
+     *
+     * @param observation An array of at least 4 elements that will receive the observation
+     */
+    public void reset(double[] observation) {
+        resetState();
+        writeObservation(observation);
+    }
+
+    private void resetState() {
         x = 0.1 * rnd.nextDouble() - 0.05;
         xDot = 0.1 * rnd.nextDouble() - 0.05;
         theta = 0.1 * rnd.nextDouble() - 0.05;
         thetaDot = 0.1 * rnd.nextDouble() - 0.05;
-        stepsBeyondDone = null;
+        stepsBeyondDone = -1;
         episodeFinished = false;
+    }
 
-        return new HashMap<String, Object>() {{
+    @Override
+    public StepResult step(Integer action) {
+        double reward = doStep(action);
+
+        Map<String, Object> channelsData = new HashMap<String, Object>() {{
             put("data", new double[]{x, xDot, theta, thetaDot});
         }};
+        return new StepResult(channelsData, reward, episodeFinished);
     }
 
-    @Override
-    public StepResult step(Integer action) {
+    /**
+     * Allocation-free version of {@link #step(Integer)}. The observation is written in a caller-supplied array
+     * and the terminal flag is available from {@link #isEpisodeFinished()}.
+     *
+     * @param action      The action
+     * @param observation An array of at least 4 elements that will receive the observation
+     * @return The reward
+     */
+    public double step(int action, double[] observation) {
+        double reward = doStep(action);
+        writeObservation(observation);
+        return reward;
+    }
+
+    private void writeObservation(double[] observation) {
+        observation[0] = x;
+        observation[1] = xDot;
+        observation[2] = theta;
+        observation[3] = thetaDot;
+    }
+
+    private double doStep(int action) {
         double force = action == ACTION_RIGHT ? forceMag : -forceMag;
         double cosTheta = Math.cos(theta);
         double sinTheta = Math.sin(theta);
@@ -99,7 +142,7 @@ public class CartpoleEnvironment implements Environment<Integer> {
         double reward;
         if (!episodeFinished) {
             reward = 1.0;
-        } else if (stepsBeyondDone == null) {
+        } else if (stepsBeyondDone == -1) {
             stepsBeyondDone = 0;
             reward = 1.0;
         } else {
@@ -107,10 +150,7 @@ public class CartpoleEnvironment implements Environment<Integer> {
             reward = 0;
         }
 
-        Map<String, Object> channelsData = new HashMap<String, Object>() {{
-            put("data", new double[]{x, xDot, theta, thetaDot});
-        }};
-        return new StepResult(channelsData, reward, episodeFinished);
+        return reward;
     }
 
     @Override
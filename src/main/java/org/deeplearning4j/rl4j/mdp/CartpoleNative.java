@@ -7,6 +7,9 @@ import org.deeplearning4j.rl4j.space.ArrayObservationSpace;
 import org.deeplearning4j.rl4j.space.Box;
 import org.deeplearning4j.rl4j.space.DiscreteSpace;
 import org.deeplearning4j.rl4j.space.ObservationSpace;
+import org.nd4j.common.base.Preconditions;
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.ndarray.INDArray;
 
 import java.util.Random;
 
@@ -63,7 +66,7 @@ public class CartpoleNative implements MDP<Box, Integer, DiscreteSpace> {
     private double xDot;
     private double theta;
     private double thetaDot;
-    private Integer stepsBeyondDone;
+    private int stepsBeyondDone = -1; // -1 until the episode is done
     @Getter
     private final DiscreteSpace actionSpace = new DiscreteSpace(NUM_ACTIONS);
     @Getter
@@ -78,15 +81,29 @@ public class CartpoleNative implements MDP<Box, Integer, DiscreteSpace> {
 
     @Override
     public Box reset() {
+        resetState();
 
+        return new Box(x, xDot, theta, thetaDot);
+    }
+
+    /**
+     * Same as {@link #reset()}, but the observation is written in a reusable array instead of a new {@link Box}.
+     *
+     * @param observation An array of 4 elements that will receive the observation, for example a row of a batch
+     */
+    public void reset(INDArray observation) {
+        checkObservation(observation);
+        resetState();
+        writeObservation(observation);
+    }
+
+    private void resetState() {
         x = 0.1 * rnd.nextDouble() - 0.05;
         xDot = 0.1 * rnd.nextDouble() - 0.05;
         theta = 0.1 * rnd.nextDouble() - 0.05;
         thetaDot = 0.1 * rnd.nextDouble() - 0.05;
-        stepsBeyondDone = null;
+        stepsBeyondDone = -1;
         done = false;
-
-        return new Box(x, xDot, theta, thetaDot);
     }
 
     @Override
@@ -96,6 +113,48 @@ public class CartpoleNative implements MDP<Box, Integer, DiscreteSpace> {
 
     @Override
     public StepReply<Box> step(Integer action) {
+        double reward = doStep(action);
+
+        return new StepReply<>(new Box(x, xDot, theta, thetaDot), reward, done, null);
+    }
+
+    /**
+     * Allocation-free version of {@link #step(Integer)}. The observation is written in a reusable array
+     * and the terminal flag is available from {@link #isDone()}.
+     *
+     * @param action      The action
+     * @param observation An array of 4 elements that will receive the observation, for example a row of a batch
+     * @return The reward
+     */
+    public double step(int action, INDArray observation) {
+        checkObservation(observation);
+        double reward = doStep(action);
+        writeObservation(observation);
+        return reward;
+    }
+
+    private static void checkObservation(INDArray observation) {
+        Preconditions.checkArgument(observation.length() == OBSERVATION_NUM_FEATURES,
+                "The observation array must have 4 elements, got %s", observation.length());
+    }
+
+    private void writeObservation(INDArray observation) {
+        if (observation.elementWiseStride() == 1) {
+            // The data buffer of a view starts at the first element of the view
+            DataBuffer data = observation.data();
+            data.put(0, x);
+            data.put(1, xDot);
+            data.put(2, theta);
+            data.put(3, thetaDot);
+        } else {
+            observation.putScalar(0, x);
+            observation.putScalar(1, xDot);
+            observation.putScalar(2, theta);
+            observation.putScalar(3, thetaDot);
+        }
+    }
+
+    private double doStep(int action) {
         double force = action == ACTION_RIGHT ? forceMag : -forceMag;
         double cosTheta = Math.cos(theta);
         double sinTheta = Math.sin(theta);
@@ -125,7 +184,7 @@ public class CartpoleNative implements MDP<Box, Integer, DiscreteSpace> {
         double reward;
         if (!done) {
             reward = 1.0;
-        } else if (stepsBeyondDone == null) {
+        } else if (stepsBeyondDone == -1) {
             stepsBeyondDone = 0;
             reward = 1.0;
         } else {
@@ -133,7 +192,7 @@ public class CartpoleNative implements MDP<Box, Integer, DiscreteSpace> {
             reward = 0;
         }
 
-        return new StepReply<>(new Box(x, xDot, theta, thetaDot), reward, done, null);
+        return reward;
     }
 
     @Override
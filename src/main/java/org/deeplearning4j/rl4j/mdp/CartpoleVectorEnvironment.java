@@ -0,0 +1,176 @@
+package org.deeplearning4j.rl4j.mdp;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.deeplearning4j.rl4j.environment.ActionSchema;
+import org.deeplearning4j.rl4j.environment.Schema;
+import org.deeplearning4j.rl4j.environment.VectorEnvironment;
+import org.deeplearning4j.rl4j.environment.VectorStepResult;
+import org.nd4j.common.base.Preconditions;
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.util.Random;
+
+/**
+ * A {@link VectorEnvironment} of carts, with the same dynamics as {@link CartpoleEnvironment}.
+ * <p>
+ * The state of all carts is kept in primitive arrays and the observations are written directly into
+ * the [numEnvironments, 4] observation array; nothing is allocated while stepping.
+ */
+public class CartpoleVectorEnvironment implements VectorEnvironment<Integer> {
+    private static final int ACTION_LEFT = 0;
+    private static final int ACTION_RIGHT = 1;
+    private static final int OBSERVATION_NUM_FEATURES = 4;
+
+    private static final Schema<Integer> schema = new Schema<>(new ActionSchema<>(ACTION_LEFT));
+    private static final double gravity = 9.8;
+
+    private static final double massCart = 1.0;
+    private static final double massPole = 0.1;
+    private static final double totalMass = massPole + massCart;
+    private static final double length = 0.5; // actually half the pole's length
+    private static final double polemassLength = massPole * length;
+    private static final double forceMag = 10.0;
+    private static final double tau = 0.02;  // seconds between state updates
+    // Angle at which to fail the episode
+    private static final double thetaThresholdRadians = 12.0 * 2.0 * Math.PI / 360.0;
+    private static final double xThreshold = 2.4;
+    private final Random rnd;
+    @Getter
+    @Setter
+    private CartpoleEnvironment.KinematicsIntegrators kinematicsIntegrator = CartpoleEnvironment.KinematicsIntegrators.Euler;
+
+    @Getter
+    private final int numEnvironments;
+    private final double[] x;
+    private final double[] xDot;
+    private final double[] theta;
+    private final double[] thetaDot;
+
+    private final INDArray observations;
+    private final DataBuffer observationsData;
+    private final VectorStepResult stepResult;
+
+    public CartpoleVectorEnvironment(int numEnvironments) {
+        this(numEnvironments, new Random());
+    }
+
+    public CartpoleVectorEnvironment(int numEnvironments, int seed) {
+        this(numEnvironments, new Random(seed));
+    }
+
+    private CartpoleVectorEnvironment(int numEnvironments, Random rnd) {
+        Preconditions.checkArgument(numEnvironments > 0, "numEnvironments must be greater than 0, got %s", numEnvironments);
+
+        this.numEnvironments = numEnvironments;
+        this.rnd = rnd;
+
+        x = new double[numEnvironments];
+        xDot = new double[numEnvironments];
+        theta = new double[numEnvironments];
+        thetaDot = new double[numEnvironments];
+
+        observations = Nd4j.create(numEnvironments, OBSERVATION_NUM_FEATURES);
+        observationsData = observations.data();
+        stepResult = new VectorStepResult(observations, new double[numEnvironments], new boolean[numEnvironments]);
+    }
+
+    @Override
+    public Schema<Integer> getSchema() {
+        return schema;
+    }
+
+    @Override
+    public INDArray reset() {
+        for (int i = 0; i < numEnvironments; ++i) {
+            reset(i);
+        }
+
+        return observations;
+    }
+
+    private void reset(int i) {
+        x[i] = 0.1 * rnd.nextDouble() - 0.05;
+        xDot[i] = 0.1 * rnd.nextDouble() - 0.05;
+        theta[i] = 0.1 * rnd.nextDouble() - 0.05;
+        thetaDot[i] = 0.1 * rnd.nextDouble() - 0.05;
+        writeObservation(i);
+    }
+
+    @Override
+    public VectorStepResult step(Integer[] actions) {
+        Preconditions.checkArgument(actions.length == numEnvironments, "Expected %s actions, got %s", numEnvironments, actions.length);
+
+        for (int i = 0; i < numEnvironments; ++i) {
+            step(i, actions[i] == ACTION_RIGHT);
+        }
+
+        return stepResult;
+    }
+
+    /**
+     * Same as {@link #step(Integer[])}, without boxed actions.
+     */
+    public VectorStepResult step(int[] actions) {
+        Preconditions.checkArgument(actions.length == numEnvironments, "Expected %s actions, got %s", numEnvironments, actions.length);
+
+        for (int i = 0; i < numEnvironments; ++i) {
+            step(i, actions[i] == ACTION_RIGHT);
+        }
+
+        return stepResult;
+    }
+
+    private void step(int i, boolean isActionRight) {
+        double force = isActionRight ? forceMag : -forceMag;
+        double cosTheta = Math.cos(theta[i]);
+        double sinTheta = Math.sin(theta[i]);
+        double temp = (force + polemassLength * thetaDot[i] * thetaDot[i] * sinTheta) / totalMass;
+        double thetaAcc = (gravity * sinTheta - cosTheta * temp) / (length * (4.0 / 3.0 - massPole * cosTheta * cosTheta / totalMass));
+        double xAcc = temp - polemassLength * thetaAcc * cosTheta / totalMass;
+
+        switch (kinematicsIntegrator) {
+            case Euler:
+                x[i] += tau * xDot[i];
+                xDot[i] += tau * xAcc;
+                theta[i] += tau * thetaDot[i];
+                thetaDot[i] += tau * thetaAcc;
+                break;
+
+            case SemiImplicitEuler:
+                xDot[i] += tau * xAcc;
+                x[i] += tau * xDot[i];
+                thetaDot[i] += tau * thetaAcc;
+                theta[i] += tau * thetaDot[i];
+                break;
+        }
+
+        boolean episodeFinished = x[i] < -xThreshold || x[i] > xThreshold
+                || theta[i] < -thetaThresholdRadians || theta[i] > thetaThresholdRadians;
+
+        // The step that finishes the episode is rewarded, then the cart is reset
+        stepResult.getRewards()[i] = 1.0;
+        stepResult.getTerminals()[i] = episodeFinished;
+
+        if (episodeFinished) {
+            reset(i);
+        } else {
+            writeObservation(i);
+        }
+    }
+
+    private void writeObservation(int i) {
+        long offset = (long) i * OBSERVATION_NUM_FEATURES;
+        observationsData.put(offset, x[i]);
+        observationsData.put(offset + 1, xDot[i]);
+        observationsData.put(offset + 2, theta[i]);
+        observationsData.put(offset + 3, thetaDot[i]);
+    }
+
+    @Override
+    public void close() {
+        // Do nothing
+    }
+}
@@ -18,6 +18,7 @@ package org.deeplearning4j.rl4j.network;
 
 import org.deeplearning4j.nn.api.NeuralNetwork;
 import org.deeplearning4j.nn.gradient.Gradient;
+import org.nd4j.linalg.api.buffer.DataType;
 import org.nd4j.linalg.api.ndarray.INDArray;
 
 import java.io.IOException;
@@ -66,6 +67,33 @@ public interface NeuralNet<NN extends NeuralNet> {
      */
     void copy(NN from);
 
+    /**
+     * Create a neural net that uses the same parameters array as this one but has its own updater state.
+     * Gradients applied to the returned neural net directly change the parameters of this one.
+     *
+     * @return the neural net sharing the parameters
+     */
+    NN replicateSharingParams();
+
+    /**
+     * Create a copy of the neural net to compute outputs and gradients only. The parameters are copied but, unlike
+     * {@link #clone()}, the updater state is not, so the replica is cheaper to create and smaller in memory.
+     * Gradients applied to the replica start from a fresh updater state.
+     *
+     * @return the replica
+     */
+    NN replicateForInference();
+
+    /**
+     * Same as {@link #replicateForInference()}, with the parameters converted to another data type, for example to
+     * compute the outputs in half precision. The replica can be refreshed with {@link #copy(NeuralNet)} from a neural
+     * net of the original data type.
+     *
+     * @param dataType the data type of the replica
+     * @return the replica
+     */
+    NN replicateForInference(DataType dataType);
+
     /**
      * Calculate the gradients from input and label (target) of all outputs
      *
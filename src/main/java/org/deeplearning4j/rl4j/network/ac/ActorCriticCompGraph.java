@@ -26,6 +26,8 @@ import org.deeplearning4j.nn.layers.recurrent.RnnOutputLayer;
 import org.deeplearning4j.nn.workspace.LayerWorkspaceMgr;
 import org.deeplearning4j.optimize.api.TrainingListener;
 import org.deeplearning4j.util.ModelSerializer;
+import org.nd4j.common.base.Preconditions;
+import org.nd4j.linalg.api.buffer.DataType;
 import org.nd4j.linalg.api.ndarray.INDArray;
 
 import java.io.IOException;
@@ -74,6 +76,14 @@ public class ActorCriticCompGraph implements IActorCritic<ActorCriticCompGraph>
         }
     }
 
+    public INDArray[] outputAll(INDArray[] inputs) {
+        if (recurrent) {
+            return cg.rnnTimeStep(inputs);
+        } else {
+            return cg.output(inputs);
+        }
+    }
+
     public ActorCriticCompGraph clone() {
         ActorCriticCompGraph nn = new ActorCriticCompGraph(cg.clone());
         nn.cg.setListeners(cg.getListeners());
@@ -81,11 +91,48 @@ public class ActorCriticCompGraph implements IActorCritic<ActorCriticCompGraph>
     }
 
     public void copy(ActorCriticCompGraph from) {
-        cg.setParams(from.cg.params());
+        copyFrom(from.getParams());
+    }
+
+    public INDArray[] getParams() {
+        return new INDArray[]{cg.params()};
+    }
+
+    public void copyFrom(INDArray[] params) {
+        INDArray destination = cg.params();
+        Preconditions.checkArgument(params.length == 1 && params[0].length() == destination.length(),
+                "Expected a single parameter array of length %s", destination.length());
+        destination.assign(params[0]);
+    }
+
+    public ActorCriticCompGraph replicateSharingParams() {
+        ComputationGraph replica = new ComputationGraph(cg.getConfiguration().clone());
+        replica.init(cg.params(), false);
+        return new ActorCriticCompGraph(replica);
+    }
+
+    public ActorCriticCompGraph replicateForInference() {
+        ComputationGraph replica = new ComputationGraph(cg.getConfiguration().clone());
+        replica.init(cg.params().dup(), false);
+        replica.setListeners(cg.getListeners());
+        return new ActorCriticCompGraph(replica);
+    }
+
+    public ActorCriticCompGraph replicateForInference(DataType dataType) {
+        ComputationGraphConfiguration configuration = cg.getConfiguration().clone();
+        configuration.setDataType(dataType);
+        ComputationGraph replica = new ComputationGraph(configuration);
+        replica.init(cg.params().castTo(dataType), false);
+        replica.setListeners(cg.getListeners());
+        return new ActorCriticCompGraph(replica);
     }
 
     public Gradient[] gradient(INDArray input, INDArray[] labels) {
-        cg.setInput(0, input);
+        return gradient(new INDArray[]{input}, labels);
+    }
+
+    public Gradient[] gradient(INDArray[] inputs, INDArray[] labels) {
+        cg.setInputs(inputs);
         cg.setLabels(labels);
         cg.computeGradientAndScore();
         Collection<TrainingListener> iterationListeners = cg.getListeners();
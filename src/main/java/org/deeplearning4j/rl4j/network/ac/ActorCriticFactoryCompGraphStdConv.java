@@ -78,13 +78,13 @@ public class ActorCriticFactoryCompGraphStdConv implements ActorCriticFactoryCom
             confB.addLayer("value", new RnnOutputLayer.Builder(LossFunctions.LossFunction.MSE).activation(Activation.IDENTITY)
                     .nIn(256).nOut(1).build(), "3");
 
-            confB.addLayer("softmax", new RnnOutputLayer.Builder(new ActorCriticLoss()).activation(Activation.SOFTMAX)
+            confB.addLayer("softmax", new RnnOutputLayer.Builder(new ActorCriticLoss(conf.getEntropyBeta())).activation(Activation.SOFTMAX)
                     .nIn(256).nOut(numOutputs).build(), "3");
         } else {
             confB.addLayer("value", new OutputLayer.Builder(LossFunctions.LossFunction.MSE).activation(Activation.IDENTITY)
                     .nIn(256).nOut(1).build(), "2");
 
-            confB.addLayer("softmax", new OutputLayer.Builder(new ActorCriticLoss()).activation(Activation.SOFTMAX)
+            confB.addLayer("softmax", new OutputLayer.Builder(new ActorCriticLoss(conf.getEntropyBeta())).activation(Activation.SOFTMAX)
                     .nIn(256).nOut(numOutputs).build(), "2");
         }
 
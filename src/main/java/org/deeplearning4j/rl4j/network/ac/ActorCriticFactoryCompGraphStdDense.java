@@ -74,13 +74,13 @@ public class ActorCriticFactoryCompGraphStdDense implements ActorCriticFactoryCo
             confB.addLayer("value", new RnnOutputLayer.Builder(LossFunctions.LossFunction.MSE).activation(Activation.IDENTITY)
                     .nOut(1).build(), getConf().getNumLayers() + "");
 
-            confB.addLayer("softmax", new RnnOutputLayer.Builder(new ActorCriticLoss()).activation(Activation.SOFTMAX)
+            confB.addLayer("softmax", new RnnOutputLayer.Builder(new ActorCriticLoss(conf.getEntropyBeta())).activation(Activation.SOFTMAX)
                     .nOut(numOutputs).build(), getConf().getNumLayers() + "");
         } else {
             confB.addLayer("value", new OutputLayer.Builder(LossFunctions.LossFunction.MSE).activation(Activation.IDENTITY)
                     .nOut(1).build(), (getConf().getNumLayers() - 1) + "");
 
-            confB.addLayer("softmax", new OutputLayer.Builder(new ActorCriticLoss()).activation(Activation.SOFTMAX)
+            confB.addLayer("softmax", new OutputLayer.Builder(new ActorCriticLoss(conf.getEntropyBeta())).activation(Activation.SOFTMAX)
                     .nOut(numOutputs).build(), (getConf().getNumLayers() - 1) + "");
         }
 
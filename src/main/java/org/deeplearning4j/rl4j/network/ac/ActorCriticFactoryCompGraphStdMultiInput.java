@@ -0,0 +1,147 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Konduit K.K.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.deeplearning4j.rl4j.network.ac;
+
+import lombok.Value;
+import org.deeplearning4j.nn.api.OptimizationAlgorithm;
+import org.deeplearning4j.nn.conf.ComputationGraphConfiguration;
+import org.deeplearning4j.nn.conf.NeuralNetConfiguration;
+import org.deeplearning4j.nn.conf.graph.MergeVertex;
+import org.deeplearning4j.nn.conf.inputs.InputType;
+import org.deeplearning4j.nn.conf.layers.ConvolutionLayer;
+import org.deeplearning4j.nn.conf.layers.DenseLayer;
+import org.deeplearning4j.nn.conf.layers.OutputLayer;
+import org.deeplearning4j.nn.graph.ComputationGraph;
+import org.deeplearning4j.nn.weights.WeightInit;
+import org.deeplearning4j.optimize.listeners.ScoreIterationListener;
+import org.deeplearning4j.rl4j.network.configuration.NetworkConfiguration;
+import org.deeplearning4j.rl4j.util.Constants;
+import org.nd4j.common.base.Preconditions;
+import org.nd4j.linalg.activations.Activation;
+import org.nd4j.linalg.learning.config.Adam;
+import org.nd4j.linalg.lossfunctions.LossFunctions;
+
+/**
+ * Standard factory for an Actor Critic with several inputs, one per channel of a multi-channel
+ * {@link org.deeplearning4j.rl4j.observation.Observation} (for example a vector of joint positions and a camera frame).
+ * <p>
+ * Each input is encoded on its own: a [channels, height, width] input by the convolutional layers of
+ * {@link ActorCriticFactoryCompGraphStdConv} followed by a dense layer, any other input by a dense layer. The encodings
+ * are merged and go through the hidden dense layers shared by the value and policy outputs.
+ * <p>
+ * Recurrent (LSTM) networks are not supported.
+ */
+@Value
+public class ActorCriticFactoryCompGraphStdMultiInput implements ActorCriticFactoryCompGraph {
+
+    // The smallest height and width that the convolutional layers can process
+    private static final int MIN_CONV_INPUT_SIZE = 20;
+
+    NetworkConfiguration conf;
+
+    public ActorCriticCompGraph buildActorCritic(int[] shapeInputs, int numOutputs) {
+        return buildActorCritic(new int[][]{shapeInputs}, numOutputs);
+    }
+
+    /**
+     * @param shapeInputs the shape of each input, without the batch dimension, in the order of the observation channels
+     * @param numOutputs  the number of actions
+     * @return the actor critic
+     */
+    public ActorCriticCompGraph buildActorCritic(int[][] shapeInputs, int numOutputs) {
+        Preconditions.checkArgument(shapeInputs.length > 0, "At least one input shape must be supplied");
+        Preconditions.checkArgument(!conf.isUseLSTM(), "Recurrent networks with several inputs are not supported");
+
+        String[] inputNames = new String[shapeInputs.length];
+        InputType[] inputTypes = new InputType[shapeInputs.length];
+        for (int i = 0; i < shapeInputs.length; i++) {
+            inputNames[i] = "input" + i;
+            inputTypes[i] = getInputType(shapeInputs[i]);
+        }
+
+        ComputationGraphConfiguration.GraphBuilder confB =
+                new NeuralNetConfiguration.Builder().seed(Constants.NEURAL_NET_SEED)
+                        .optimizationAlgo(OptimizationAlgorithm.STOCHASTIC_GRADIENT_DESCENT)
+                        .updater(conf.getUpdater() != null ? conf.getUpdater() : new Adam())
+                        .weightInit(WeightInit.XAVIER)
+                        .l2(conf.getL2()).graphBuilder()
+                        .addInputs(inputNames)
+                        .setInputTypes(inputTypes);
+
+        String[] encoderNames = new String[shapeInputs.length];
+        for (int i = 0; i < shapeInputs.length; i++) {
+            String encoderInput = inputNames[i];
+            if (shapeInputs[i].length == 3) {
+                confB.addLayer("conv" + i + "-0", new ConvolutionLayer.Builder(8, 8).nOut(16)
+                        .stride(4, 4).activation(Activation.RELU).build(), encoderInput);
+                confB.addLayer("conv" + i + "-1", new ConvolutionLayer.Builder(4, 4).nOut(32)
+                        .stride(2, 2).activation(Activation.RELU).build(), "conv" + i + "-0");
+                encoderInput = "conv" + i + "-1";
+            }
+
+            encoderNames[i] = "encoder" + i;
+            confB.addLayer(encoderNames[i], new DenseLayer.Builder().nOut(conf.getNumHiddenNodes())
+                    .activation(Activation.RELU).build(), encoderInput);
+        }
+
+        String previous = encoderNames[0];
+        if (encoderNames.length > 1) {
+            confB.addVertex("merge", new MergeVertex(), encoderNames);
+            previous = "merge";
+        }
+
+        for (int i = 1; i < conf.getNumLayers(); i++) {
+            confB.addLayer(i + "", new DenseLayer.Builder().nOut(conf.getNumHiddenNodes())
+                    .activation(Activation.RELU).build(), previous);
+            previous = i + "";
+        }
+
+        confB.addLayer("value", new OutputLayer.Builder(LossFunctions.LossFunction.MSE).activation(Activation.IDENTITY)
+                .nOut(1).build(), previous);
+
+        confB.addLayer("softmax", new OutputLayer.Builder(new ActorCriticLoss(conf.getEntropyBeta())).activation(Activation.SOFTMAX)
+                .nOut(numOutputs).build(), previous);
+
+        confB.setOutputs("value", "softmax");
+
+        ComputationGraphConfiguration cgconf = confB.build();
+        ComputationGraph model = new ComputationGraph(cgconf);
+        model.init();
+        if (conf.getListeners() != null) {
+            model.setListeners(conf.getListeners());
+        } else {
+            model.setListeners(new ScoreIterationListener(Constants.NEURAL_NET_ITERATION_LISTENER));
+        }
+
+        return new ActorCriticCompGraph(model);
+    }
+
+    private static InputType getInputType(int[] shape) {
+        if (shape.length == 3) {
+            Preconditions.checkArgument(shape[1] >= MIN_CONV_INPUT_SIZE && shape[2] >= MIN_CONV_INPUT_SIZE,
+                    "A convolutional input must be at least %sx%s, got shape %s", MIN_CONV_INPUT_SIZE, MIN_CONV_INPUT_SIZE, shape);
+            return InputType.convolutional(shape[1], shape[2], shape[0]);
+        }
+
+        int nIn = 1;
+        for (int i : shape) {
+            nIn *= i;
+        }
+        return InputType.feedForward(nIn);
+    }
+
+}
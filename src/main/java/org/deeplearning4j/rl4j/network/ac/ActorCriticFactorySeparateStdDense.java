@@ -100,10 +100,10 @@ public class ActorCriticFactorySeparateStdDense implements ActorCriticFactorySep
         if (conf.isUseLSTM()) {
             confB2.layer(conf.getNumLayers(), new LSTM.Builder().nOut(conf.getNumHiddenNodes()).activation(Activation.TANH).build());
 
-            confB2.layer(conf.getNumLayers() + 1, new RnnOutputLayer.Builder(new ActorCriticLoss())
+            confB2.layer(conf.getNumLayers() + 1, new RnnOutputLayer.Builder(new ActorCriticLoss(conf.getEntropyBeta()))
                     .activation(Activation.SOFTMAX).nIn(conf.getNumHiddenNodes()).nOut(numOutputs).build());
         } else {
-            confB2.layer(conf.getNumLayers(), new OutputLayer.Builder(new ActorCriticLoss())
+            confB2.layer(conf.getNumLayers(), new OutputLayer.Builder(new ActorCriticLoss(conf.getEntropyBeta()))
                     .activation(Activation.SOFTMAX).nIn(conf.getNumHiddenNodes()).nOut(numOutputs).build());
         }
 
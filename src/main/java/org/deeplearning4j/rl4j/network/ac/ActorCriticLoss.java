@@ -17,9 +17,13 @@
 package org.deeplearning4j.rl4j.network.ac;
 
 import lombok.EqualsAndHashCode;
+import org.nd4j.common.base.Preconditions;
 import org.nd4j.common.primitives.Pair;
 import org.nd4j.linalg.activations.IActivation;
+import org.nd4j.linalg.activations.impl.ActivationSoftmax;
+import org.nd4j.linalg.api.buffer.DataBuffer;
 import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
 import org.nd4j.linalg.lossfunctions.ILossFunction;
 import org.nd4j.linalg.lossfunctions.LossUtil;
 import org.nd4j.linalg.lossfunctions.impl.LossMCXENT;
@@ -31,7 +35,11 @@ import org.nd4j.shade.jackson.annotation.JsonInclude;
  * <pre>
  * L = sum_i advantage_i * log( probability_i ) + entropy( probability )
  * </pre>
- * It is very similar to the Multi-Class Cross Entropy loss function.
+ * It is very similar to the Multi-Class Cross Entropy loss function. The entropy is weighted by beta.
+ * <p>
+ * With the softmax activation, the score and the gradient are computed together in a single pass over the
+ * pre-activations, into a single array for the gradient (allocated in the current workspace, if any), without the
+ * temporaries of the element-wise operations. Other activations use the generic implementation.
  *
  * @author saudet
  * @see LossMCXENT
@@ -40,40 +48,67 @@ import org.nd4j.shade.jackson.annotation.JsonInclude;
 @JsonInclude(JsonInclude.Include.NON_NULL)
 public class ActorCriticLoss implements ILossFunction {
 
-    public static final double BETA = 0.01;
+    public static final double DEFAULT_BETA = 0.01;
 
-    private INDArray scoreArray(INDArray labels, INDArray preOutput, IActivation activationFn, INDArray mask) {
-        INDArray output = activationFn.getActivation(preOutput.dup(), true).addi(1e-5);
-        INDArray logOutput = Transforms.log(output, true);
-        INDArray entropy = output.muli(logOutput);
-        INDArray scoreArr = logOutput.muli(labels).subi(entropy.muli(BETA));
+    private static final double EPSILON = 1e-5;
 
-        if (mask != null) {
-            LossUtil.applyMask(scoreArr, mask);
-        }
-        return scoreArr;
+    private double beta;
+
+    public ActorCriticLoss() {
+        this(DEFAULT_BETA);
+    }
+
+    /**
+     * @param beta The weight of the entropy
+     */
+    public ActorCriticLoss(double beta) {
+        this.beta = beta;
+    }
+
+    public double getBeta() {
+        return beta;
     }
 
     @Override
     public double computeScore(INDArray labels, INDArray preOutput, IActivation activationFn, INDArray mask,
                                boolean average) {
-        INDArray scoreArr = scoreArray(labels, preOutput, activationFn, mask);
-        double score = -scoreArr.sumNumber().doubleValue();
-        return average ? score / scoreArr.size(0) : score;
+        double score;
+        long size;
+        if (activationFn instanceof ActivationSoftmax) {
+            score = computeFused(labels, preOutput, mask, null, null);
+            size = preOutput.size(0);
+        } else {
+            INDArray scoreArr = scoreArray(labels, preOutput, activationFn, mask);
+            score = -scoreArr.sumNumber().doubleValue();
+            size = scoreArr.size(0);
+        }
+        return average ? score / size : score;
     }
 
     @Override
     public INDArray computeScoreArray(INDArray labels, INDArray preOutput, IActivation activationFn, INDArray mask) {
+        if (activationFn instanceof ActivationSoftmax) {
+            INDArray scoreArr = Nd4j.createUninitialized(preOutput.dataType(), preOutput.size(0));
+            computeFused(labels, preOutput, mask, scoreArr, null);
+            return scoreArr;
+        }
+
         INDArray scoreArr = scoreArray(labels, preOutput, activationFn, mask);
         return scoreArr.sum(1).muli(-1);
     }
 
     @Override
     public INDArray computeGradient(INDArray labels, INDArray preOutput, IActivation activationFn, INDArray mask) {
-        INDArray output = activationFn.getActivation(preOutput.dup(), true).addi(1e-5);
+        if (activationFn instanceof ActivationSoftmax) {
+            INDArray grad = Nd4j.createUninitialized(preOutput.dataType(), preOutput.shape(), 'c');
+            computeFused(labels, preOutput, mask, null, grad);
+            return grad;
+        }
+
+        INDArray output = activationFn.getActivation(preOutput.dup(), true).addi(EPSILON);
         INDArray logOutput = Transforms.log(output, true);
         INDArray entropyDev = logOutput.addi(1);
-        INDArray dLda = output.rdivi(labels).subi(entropyDev.muli(BETA)).negi();
+        INDArray dLda = output.rdivi(labels).subi(entropyDev.muli(beta)).negi();
         INDArray grad = activationFn.backprop(preOutput, dLda).getFirst();
 
         if (mask != null) {
@@ -85,13 +120,118 @@ public class ActorCriticLoss implements ILossFunction {
     @Override
     public Pair<Double, INDArray> computeGradientAndScore(INDArray labels, INDArray preOutput, IActivation activationFn,
                                                           INDArray mask, boolean average) {
-        return new Pair<>(computeScore(labels, preOutput, activationFn, mask, average),
-                computeGradient(labels, preOutput, activationFn, mask));
+        if (!(activationFn instanceof ActivationSoftmax)) {
+            return new Pair<>(computeScore(labels, preOutput, activationFn, mask, average),
+                    computeGradient(labels, preOutput, activationFn, mask));
+        }
+
+        INDArray grad = Nd4j.createUninitialized(preOutput.dataType(), preOutput.shape(), 'c');
+        double score = computeFused(labels, preOutput, mask, null, grad);
+        return new Pair<>(average ? score / preOutput.size(0) : score, grad);
+    }
+
+    private INDArray scoreArray(INDArray labels, INDArray preOutput, IActivation activationFn, INDArray mask) {
+        INDArray output = activationFn.getActivation(preOutput.dup(), true).addi(EPSILON);
+        INDArray logOutput = Transforms.log(output, true);
+        INDArray entropy = output.muli(logOutput);
+        INDArray scoreArr = logOutput.muli(labels).subi(entropy.muli(beta));
+
+        if (mask != null) {
+            LossUtil.applyMask(scoreArr, mask);
+        }
+        return scoreArr;
+    }
+
+    /**
+     * Compute the loss for the softmax activation, one example at a time, reading the arrays through their strides.
+     *
+     * @param scoreArr If not null, receives the score of each example
+     * @param grad     If not null, a c-order array that receives the gradient with respect to the pre-activations
+     * @return The total score
+     */
+    private double computeFused(INDArray labels, INDArray preOutput, INDArray mask, INDArray scoreArr, INDArray grad) {
+        Preconditions.checkArgument(preOutput.rank() == 2 && labels.equalShapes(preOutput),
+                "Labels and pre-output must have the same 2d shape, got %ndShape and %ndShape", labels, preOutput);
+        boolean isPerExampleMask = mask != null && mask.size(1) == 1;
+        Preconditions.checkArgument(mask == null || isPerExampleMask || mask.equalShapes(preOutput),
+                "The mask must be a column vector or have the shape of the labels, got %ndShape", mask);
+
+        int numExamples = (int) preOutput.size(0);
+        int numActions = (int) preOutput.size(1);
+        StridedMatrix z = new StridedMatrix(preOutput);
+        StridedMatrix y = new StridedMatrix(labels);
+        StridedMatrix m = mask == null ? null : new StridedMatrix(mask);
+        DataBuffer gradData = grad == null ? null : grad.data();
+
+        double[] probabilities = new double[numActions];
+        double[] dLdp = new double[numActions];
+        double totalScore = 0.0;
+
+        for (int i = 0; i < numExamples; ++i) {
+            // Softmax
+            double max = Double.NEGATIVE_INFINITY;
+            for (int j = 0; j < numActions; ++j) {
+                max = Math.max(max, z.get(i, j));
+            }
+            double sum = 0.0;
+            for (int j = 0; j < numActions; ++j) {
+                probabilities[j] = Math.exp(z.get(i, j) - max);
+                sum += probabilities[j];
+            }
+
+            double score = 0.0;
+            double weightedDLdp = 0.0;
+            for (int j = 0; j < numActions; ++j) {
+                probabilities[j] /= sum;
+                double output = probabilities[j] + EPSILON;
+                double logOutput = Math.log(output);
+                double label = y.get(i, j);
+                double maskValue = m == null ? 1.0 : m.get(i, isPerExampleMask ? 0 : j);
+
+                score += (logOutput * label - beta * output * logOutput) * maskValue;
+                dLdp[j] = beta * (logOutput + 1.0) - label / output;
+                weightedDLdp += dLdp[j] * probabilities[j];
+            }
+
+            if (gradData != null) {
+                long offset = (long) i * numActions;
+                for (int j = 0; j < numActions; ++j) {
+                    double maskValue = m == null ? 1.0 : m.get(i, isPerExampleMask ? 0 : j);
+                    gradData.put(offset + j, probabilities[j] * (dLdp[j] - weightedDLdp) * maskValue);
+                }
+            }
+
+            if (scoreArr != null) {
+                scoreArr.putScalar(i, -score);
+            }
+            totalScore -= score;
+        }
+
+        return totalScore;
+    }
+
+    /**
+     * Element access to a 2d array through its data buffer and strides
+     */
+    private static class StridedMatrix {
+        private final DataBuffer data;
+        private final long rowStride;
+        private final long columnStride;
+
+        private StridedMatrix(INDArray array) {
+            this.data = array.data();
+            this.rowStride = array.stride(0);
+            this.columnStride = array.stride(1);
+        }
+
+        private double get(int row, int column) {
+            return data.getDouble(row * rowStride + column * columnStride);
+        }
     }
 
     @Override
     public String toString() {
-        return "ActorCriticLoss()";
+        return "ActorCriticLoss(beta=" + beta + ")";
     }
 
     @Override
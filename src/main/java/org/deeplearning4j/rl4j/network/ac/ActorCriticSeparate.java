@@ -25,6 +25,8 @@ import org.deeplearning4j.nn.multilayer.MultiLayerNetwork;
 import org.deeplearning4j.nn.workspace.LayerWorkspaceMgr;
 import org.deeplearning4j.optimize.api.TrainingListener;
 import org.deeplearning4j.util.ModelSerializer;
+import org.nd4j.common.base.Preconditions;
+import org.nd4j.linalg.api.buffer.DataType;
 import org.nd4j.linalg.api.ndarray.INDArray;
 
 import java.io.IOException;
@@ -79,6 +81,10 @@ public class ActorCriticSeparate<NN extends ActorCriticSeparate> implements IAct
         }
     }
 
+    public INDArray[] outputAll(INDArray[] inputs) {
+        return outputAll(getSingleInput(inputs));
+    }
+
     public NN clone() {
         NN nn = (NN) new ActorCriticSeparate(valueNet.clone(), policyNet.clone());
         nn.valueNet.setListeners(valueNet.getListeners());
@@ -87,8 +93,54 @@ public class ActorCriticSeparate<NN extends ActorCriticSeparate> implements IAct
     }
 
     public void copy(NN from) {
-        valueNet.setParams(from.valueNet.params());
-        policyNet.setParams(from.policyNet.params());
+        copyFrom(from.getParams());
+    }
+
+    public INDArray[] getParams() {
+        return new INDArray[]{valueNet.params(), policyNet.params()};
+    }
+
+    public void copyFrom(INDArray[] params) {
+        INDArray valueParams = valueNet.params();
+        INDArray policyParams = policyNet.params();
+        Preconditions.checkArgument(params.length == 2
+                        && params[0].length() == valueParams.length()
+                        && params[1].length() == policyParams.length(),
+                "Expected a value parameter array of length %s and a policy parameter array of length %s",
+                valueParams.length(), policyParams.length());
+        valueParams.assign(params[0]);
+        policyParams.assign(params[1]);
+    }
+
+    public NN replicateSharingParams() {
+        MultiLayerNetwork valueReplica = new MultiLayerNetwork(valueNet.getLayerWiseConfigurations().clone());
+        valueReplica.init(valueNet.params(), false);
+        MultiLayerNetwork policyReplica = new MultiLayerNetwork(policyNet.getLayerWiseConfigurations().clone());
+        policyReplica.init(policyNet.params(), false);
+        return (NN) new ActorCriticSeparate(valueReplica, policyReplica);
+    }
+
+    public NN replicateForInference() {
+        MultiLayerNetwork valueReplica = new MultiLayerNetwork(valueNet.getLayerWiseConfigurations().clone());
+        valueReplica.init(valueNet.params().dup(), false);
+        valueReplica.setListeners(valueNet.getListeners());
+        MultiLayerNetwork policyReplica = new MultiLayerNetwork(policyNet.getLayerWiseConfigurations().clone());
+        policyReplica.init(policyNet.params().dup(), false);
+        policyReplica.setListeners(policyNet.getListeners());
+        return (NN) new ActorCriticSeparate(valueReplica, policyReplica);
+    }
+
+    public NN replicateForInference(DataType dataType) {
+        return (NN) new ActorCriticSeparate(replicateForInference(valueNet, dataType), replicateForInference(policyNet, dataType));
+    }
+
+    private static MultiLayerNetwork replicateForInference(MultiLayerNetwork network, DataType dataType) {
+        MultiLayerConfiguration configuration = network.getLayerWiseConfigurations().clone();
+        configuration.setDataType(dataType);
+        MultiLayerNetwork replica = new MultiLayerNetwork(configuration);
+        replica.init(network.params().castTo(dataType), false);
+        replica.setListeners(network.getListeners());
+        return replica;
     }
 
     public Gradient[] gradient(INDArray input, INDArray[] labels) {
@@ -114,6 +166,16 @@ public class ActorCriticSeparate<NN extends ActorCriticSeparate> implements IAct
         return new Gradient[]{valueNet.gradient(), policyNet.gradient()};
     }
 
+    public Gradient[] gradient(INDArray[] inputs, INDArray[] labels) {
+        return gradient(getSingleInput(inputs), labels);
+    }
+
+    // The separate networks are MultiLayerNetworks, which have a single input
+    private static INDArray getSingleInput(INDArray[] inputs) {
+        Preconditions.checkArgument(inputs.length == 1, "ActorCriticSeparate has a single input, got %s inputs. Use an ActorCriticCompGraph with several inputs instead.", inputs.length);
+        return inputs[0];
+    }
+
 
     public void applyGradient(Gradient[] gradient, int batchSize) {
         MultiLayerConfiguration valueConf = valueNet.getLayerWiseConfigurations();
@@ -42,12 +42,43 @@ public interface IActorCritic<NN extends IActorCritic> extends NeuralNet<NN> {
     //FIRST SHOULD BE VALUE AND SECOND IS SOFTMAX POLICY. DONT MESS THIS UP OR ELSE ASYNC THREAD IS BROKEN (maxQ) !
     INDArray[] outputAll(INDArray batch);
 
+    /**
+     * Same as {@link #outputAll(INDArray)} for a network with several inputs, for example the channels of a
+     * multi-channel {@link org.deeplearning4j.rl4j.observation.Observation}.
+     *
+     * @param inputs one batch per input of the network, in the order of the inputs
+     * @return evaluation by the model of the inputs by all outputs
+     */
+    INDArray[] outputAll(INDArray[] inputs);
+
     NN clone();
 
     void copy(NN from);
 
+    /**
+     * @return the flat parameters of each underlying network (value then policy for separate networks). These are the
+     * parameter arrays used by the networks, not copies.
+     */
+    INDArray[] getParams();
+
+    /**
+     * Copy in place the flat parameters of an actor-critic with the same structure, as returned by {@link #getParams()}.
+     *
+     * @param params where to copy parameters
+     */
+    void copyFrom(INDArray[] params);
+
     Gradient[] gradient(INDArray input, INDArray[] labels);
 
+    /**
+     * Same as {@link #gradient(INDArray, INDArray[])} for a network with several inputs.
+     *
+     * @param inputs one batch per input of the network, in the order of the inputs
+     * @param labels target batch
+     * @return the gradients
+     */
+    Gradient[] gradient(INDArray[] inputs, INDArray[] labels);
+
     void applyGradient(Gradient[] gradient, int batchSize);
 
     void save(OutputStream streamValue, OutputStream streamPolicy) throws IOException;
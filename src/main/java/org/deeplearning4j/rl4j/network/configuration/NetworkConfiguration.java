@@ -70,5 +70,12 @@ public class NetworkConfiguration {
     @Builder.Default
     private int numHiddenNodes = 100;
 
+    /**
+     * The weight of the entropy in the loss of the actor-critic policy (see
+     * {@link org.deeplearning4j.rl4j.network.ac.ActorCriticLoss})
+     */
+    @Builder.Default
+    private double entropyBeta = 0.01;
+
 
 }
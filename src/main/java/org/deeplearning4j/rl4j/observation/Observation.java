@@ -18,10 +18,15 @@ package org.deeplearning4j.rl4j.observation;
 
 import lombok.Getter;
 import org.deeplearning4j.rl4j.space.Encodable;
+import org.nd4j.common.base.Preconditions;
 import org.nd4j.linalg.api.ndarray.INDArray;
 
 /**
  * Represent an observation from the environment
+ * <p>
+ * An observation can have several channels (for example a vector of joint positions and a camera frame), each in its
+ * own INDArray; the arrays are held as given, without being copied or concatenated. The first channel is the one
+ * returned by {@link #getData()}.
  *
  * @author Alexandre Boulanger
  */
@@ -30,21 +35,77 @@ public class Observation implements Encodable {
     /**
      * A singleton representing a skipped observation
      */
-    public static Observation SkippedObservation = new Observation(null);
+    public static Observation SkippedObservation = new Observation((INDArray) null);
 
     /**
-     * @return A INDArray containing the data of the observation
+     * @return A INDArray containing the data of the observation (the data of the first channel of a multi-channel
+     * observation)
      */
     @Getter
     private final INDArray data;
 
+    /**
+     * @return The data of each channel of the observation. The array must not be modified.
+     */
+    @Getter
+    private final INDArray[] channelsData;
+
     public Observation(INDArray data) {
         this.data = data;
+        this.channelsData = data == null ? null : new INDArray[]{data};
+    }
+
+    /**
+     * @param channelsData The data of each channel. The array and the channel data are not copied.
+     */
+    public Observation(INDArray[] channelsData) {
+        Preconditions.checkArgument(channelsData != null && channelsData.length > 0, "At least one channel must be supplied");
+        for (INDArray channelData : channelsData) {
+            Preconditions.checkNotNull(channelData, "Error: got a null channel data");
+        }
+
+        this.data = channelsData[0];
+        this.channelsData = channelsData;
+    }
+
+    /**
+     * @return The number of channels of the observation (0 for a skipped observation)
+     */
+    public int getNumChannels() {
+        return channelsData == null ? 0 : channelsData.length;
     }
 
+    /**
+     * @param channel The index of the channel
+     * @return The data of the channel
+     */
+    public INDArray getChannelData(int channel) {
+        return channelsData[channel];
+    }
+
+    /**
+     * @return The data of all the channels, one after the other
+     */
     @Override
     public double[] toArray() {
-        return data.data().asDouble();
+        if (channelsData.length == 1) {
+            return data.data().asDouble();
+        }
+
+        double[][] channelArrays = new double[channelsData.length][];
+        int length = 0;
+        for (int i = 0; i < channelsData.length; ++i) {
+            channelArrays[i] = channelsData[i].data().asDouble();
+            length += channelArrays[i].length;
+        }
+
+        double[] result = new double[length];
+        int offset = 0;
+        for (double[] channelArray : channelArrays) {
+            System.arraycopy(channelArray, 0, result, offset, channelArray.length);
+            offset += channelArray.length;
+        }
+        return result;
     }
 
     public boolean isSkipped() {
@@ -61,6 +122,14 @@ public class Observation implements Encodable {
             return SkippedObservation;
         }
 
-        return new Observation(data.dup());
+        if (channelsData.length == 1) {
+            return new Observation(data.dup());
+        }
+
+        INDArray[] duplicates = new INDArray[channelsData.length];
+        for (int i = 0; i < channelsData.length; ++i) {
+            duplicates[i] = channelsData[i].dup();
+        }
+        return new Observation(duplicates);
     }
 }
@@ -15,7 +15,6 @@
  ******************************************************************************/
 package org.deeplearning4j.rl4j.observation.transform;
 
-import org.apache.commons.lang3.NotImplementedException;
 import org.datavec.api.transform.Operation;
 import org.deeplearning4j.rl4j.helper.INDArrayHelper;
 import org.deeplearning4j.rl4j.observation.Observation;
@@ -25,10 +24,14 @@ import org.nd4j.linalg.dataset.api.DataSet;
 import org.nd4j.linalg.dataset.api.DataSetPreProcessor;
 import org.nd4j.shade.guava.collect.Maps;
 
+import java.util.AbstractMap;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 /**
  * A TransformProcess will build an {@link Observation Observation} from the raw data coming from the environment.
@@ -40,20 +43,82 @@ import java.util.Map;
  * Instances of the three types above can be called in any order. The only requirement is that when build() is called,
  * all channels must be instances of INDArrays or DataSets
  * <p>
- * NOTE: Presently, only single-channels observations are supported.
+ * The steps are compiled when the TransformProcess is built: each channel gets an integer slot and each step becomes a
+ * stage that works directly on its slot, so that transforming an observation does not look up or validate anything.
+ * The channels can be supplied in an array indexed by their slot (see {@link #getChannelIndex(String)}), or in a Map.
+ * <p>
+ * The observation has one channel per channel name given to {@link Builder#build(String...)}, in that order. The
+ * channels are not copied nor concatenated (see {@link Observation#getChannelsData()}).
+ * <p>
+ * The steps can also be run by an executor, off the calling thread (see
+ * {@link #transformAsync(Object[], int, boolean, Executor)}).
+ * <p>
+ * A TransformProcess is not thread-safe.
  *
  * @author Alexandre Boulanger
  */
 public class TransformProcess {
 
-    private final List<Map.Entry<String, Object>> operations;
-    private final String[] channelNames;
-    private final HashSet<String> operationsChannelNames;
+    private final Stage[] stages;
+    private final int leadingFilterCount;
+    private final ResettableOperation[] resettableOperations;
+
+    private final Map<String, Integer> channelIndexes;
+    private final String[] slotNames;
+    private final Object[] slots;
+    private final ChannelsView channelsView;
+
+    private final int[] observationSlots;
+    private final ObservationStage[] observationStages;
 
     private TransformProcess(Builder builder, String... channelNames) {
-        operations = builder.operations;
-        this.channelNames = channelNames;
-        this.operationsChannelNames = builder.requiredChannelNames;
+        channelIndexes = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> entry : builder.operations) {
+            if (entry.getKey() != null) {
+                channelIndexes.putIfAbsent(entry.getKey(), channelIndexes.size());
+            }
+        }
+        for (String channelName : channelNames) {
+            channelIndexes.putIfAbsent(channelName, channelIndexes.size());
+        }
+
+        slotNames = channelIndexes.keySet().toArray(new String[0]);
+        slots = new Object[slotNames.length];
+        channelsView = new ChannelsView();
+
+        List<Stage> compiledStages = new ArrayList<>();
+        List<ResettableOperation> resettables = new ArrayList<>();
+        for (Map.Entry<String, Object> entry : builder.operations) {
+            Object operation = entry.getValue();
+            if (operation instanceof FilterOperation) {
+                compiledStages.add(new FilterStage((FilterOperation) operation, channelsView));
+            } else if (operation instanceof Operation) {
+                compiledStages.add(new OperationStage(channelIndexes.get(entry.getKey()), (Operation) operation));
+            } else if (operation instanceof DataSetPreProcessor) {
+                compiledStages.add(new PreProcessStage(channelIndexes.get(entry.getKey()), (DataSetPreProcessor) operation));
+            } else {
+                throw new IllegalArgumentException(String.format("Unknown operation: '%s'", operation.getClass().getName()));
+            }
+
+            if (operation instanceof ResettableOperation) {
+                resettables.add((ResettableOperation) operation);
+            }
+        }
+        stages = compiledStages.toArray(new Stage[0]);
+
+        int filterCount = 0;
+        while (filterCount < stages.length && stages[filterCount] instanceof FilterStage) {
+            ++filterCount;
+        }
+        leadingFilterCount = filterCount;
+        resettableOperations = resettables.toArray(new ResettableOperation[0]);
+
+        observationSlots = new int[channelNames.length];
+        observationStages = new ObservationStage[channelNames.length];
+        for (int i = 0; i < channelNames.length; ++i) {
+            observationSlots[i] = channelIndexes.get(channelNames[i]);
+            observationStages[i] = new ObservationStage();
+        }
     }
 
     /**
@@ -63,14 +128,29 @@ public class TransformProcess {
         return new Builder();
     }
 
+    /**
+     * @return The number of channels used by the steps or to build the observation
+     */
+    public int getNumChannels() {
+        return slots.length;
+    }
+
+    /**
+     * @param channelName The name of a channel used by the steps or to build the observation
+     * @return The index of the channel in the array given to {@link #transform(Object[], int, boolean)}
+     */
+    public int getChannelIndex(String channelName) {
+        Integer index = channelIndexes.get(channelName);
+        Preconditions.checkArgument(index != null, "The channel '%s' is not used by the transform process", channelName);
+        return index;
+    }
+
     /**
      * This method will call reset() of all steps implementing {@link ResettableOperation ResettableOperation} in the transform process.
      */
     public void reset() {
-        for (Map.Entry<String, Object> entry : operations) {
-            if (entry.getValue() instanceof ResettableOperation) {
-                ((ResettableOperation) entry.getValue()).reset();
-            }
+        for (ResettableOperation resettableOperation : resettableOperations) {
+            resettableOperation.reset();
         }
     }
 
@@ -86,78 +166,208 @@ public class TransformProcess {
         // null or empty channelData
         Preconditions.checkArgument(channelsData != null && channelsData.size() != 0, "Error: channelsData not supplied.");
 
-        // Check that all channels have data
-        for (Map.Entry<String, Object> channel : channelsData.entrySet()) {
-            Preconditions.checkNotNull(channel.getValue(), "Error: data of channel '%s' is null", channel.getKey());
+        for (int i = 0; i < slots.length; ++i) {
+            Object channelData = channelsData.get(slotNames[i]);
+            if (channelData == null) {
+                throw new IllegalArgumentException(String.format("The channelsData map does not contain data for the channel '%s'", slotNames[i]));
+            }
+            slots[i] = channelData;
         }
 
-        // Check that all required channels are present
-        for (String channelName : operationsChannelNames) {
-            Preconditions.checkArgument(channelsData.containsKey(channelName), "The channelsData map does not contain the channel '%s'", channelName);
+        channelsView.otherChannels = channelsData;
+        try {
+            return run(0, currentObservationStep, isFinalObservation);
+        } finally {
+            channelsView.otherChannels = null;
         }
+    }
 
-        for (Map.Entry<String, Object> entry : operations) {
+    /**
+     * Same as {@link #transform(Map, int, boolean)}, with the channels supplied by index. The data of all the channels
+     * must be supplied, and is not checked.
+     *
+     * @param channelsData           The data of each channel, at the index given by {@link #getChannelIndex(String)}.
+     *                               The array is not modified.
+     * @param currentObservationStep The observation's step number within the episode.
+     * @param isFinalObservation     True if the observation is the last of the episode.
+     * @return An observation (may be a skipped observation)
+     */
+    public Observation transform(Object[] channelsData, int currentObservationStep, boolean isFinalObservation) {
+        System.arraycopy(channelsData, 0, slots, 0, slots.length);
+        return run(0, currentObservationStep, isFinalObservation);
+    }
 
-            // Filter
-            if (entry.getValue() instanceof FilterOperation) {
-                FilterOperation filterOperation = (FilterOperation) entry.getValue();
-                if (filterOperation.isSkipped(channelsData, currentObservationStep, isFinalObservation)) {
-                    return Observation.SkippedObservation;
-                }
+    /**
+     * Same as {@link #transform(Object[], int, boolean)}, but the steps are run by the executor. The filters that come
+     * before the first transform are still run on the calling thread, so that an observation skipped by them is
+     * returned right away, as an already completed future.
+     * <p>
+     * The channelsData array can be reused as soon as this method returns, but the transform process must not be used
+     * again before the returned future is complete.
+     *
+     * @param channelsData           The data of each channel, at the index given by {@link #getChannelIndex(String)}.
+     *                               The array is not modified.
+     * @param currentObservationStep The observation's step number within the episode.
+     * @param isFinalObservation     True if the observation is the last of the episode.
+     * @param executor               The executor that runs the steps
+     * @return The future observation (may be a skipped observation)
+     */
+    public CompletableFuture<Observation> transformAsync(Object[] channelsData, int currentObservationStep, boolean isFinalObservation, Executor executor) {
+        System.arraycopy(channelsData, 0, slots, 0, slots.length);
+        for (int i = 0; i < leadingFilterCount; ++i) {
+            if (!stages[i].apply(slots, currentObservationStep, isFinalObservation)) {
+                return CompletableFuture.completedFuture(Observation.SkippedObservation);
             }
+        }
+
+        return CompletableFuture.supplyAsync(() -> run(leadingFilterCount, currentObservationStep, isFinalObservation), executor);
+    }
 
-            // Transform
-            // null results are considered skipped observations
-            else if (entry.getValue() instanceof Operation) {
-                Operation transformOperation = (Operation) entry.getValue();
-                Object transformed = transformOperation.transform(channelsData.get(entry.getKey()));
-                if (transformed == null) {
-                    return Observation.SkippedObservation;
-                }
-                channelsData.replace(entry.getKey(), transformed);
+    private Observation run(int firstStage, int currentObservationStep, boolean isFinalObservation) {
+        for (int i = firstStage; i < stages.length; ++i) {
+            if (!stages[i].apply(slots, currentObservationStep, isFinalObservation)) {
+                return Observation.SkippedObservation;
             }
+        }
 
-            // PreProcess
-            else if (entry.getValue() instanceof DataSetPreProcessor) {
-                Object channelData = channelsData.get(entry.getKey());
-                DataSetPreProcessor dataSetPreProcessor = (DataSetPreProcessor) entry.getValue();
-                if (!(channelData instanceof DataSet)) {
-                    throw new IllegalArgumentException("The channel data must be a DataSet to call preProcess");
-                }
-                dataSetPreProcessor.preProcess((DataSet) channelData);
-            } else {
-                throw new IllegalArgumentException(String.format("Unknown operation: '%s'", entry.getValue().getClass().getName()));
+        if (observationSlots.length == 1) {
+            return new Observation(observationStages[0].apply(slots[observationSlots[0]]));
+        }
+
+        INDArray[] channelsData = new INDArray[observationSlots.length];
+        for (int i = 0; i < observationSlots.length; ++i) {
+            channelsData[i] = observationStages[i].apply(slots[observationSlots[i]]);
+        }
+        return new Observation(channelsData);
+    }
+
+    /**
+     * A compiled step of the transform process
+     */
+    private interface Stage {
+        /**
+         * @return false if the observation is skipped
+         */
+        boolean apply(Object[] slots, int currentObservationStep, boolean isFinalObservation);
+    }
+
+    private static class FilterStage implements Stage {
+        private final FilterOperation filterOperation;
+        private final Map<String, Object> channelsData;
+
+        private FilterStage(FilterOperation filterOperation, Map<String, Object> channelsData) {
+            this.filterOperation = filterOperation;
+            this.channelsData = channelsData;
+        }
+
+        @Override
+        public boolean apply(Object[] slots, int currentObservationStep, boolean isFinalObservation) {
+            return !filterOperation.isSkipped(channelsData, currentObservationStep, isFinalObservation);
+        }
+    }
+
+    // null results are considered skipped observations
+    private static class OperationStage implements Stage {
+        private final int slot;
+        private final Operation operation;
+
+        private OperationStage(int slot, Operation operation) {
+            this.slot = slot;
+            this.operation = operation;
+        }
+
+        @Override
+        public boolean apply(Object[] slots, int currentObservationStep, boolean isFinalObservation) {
+            Object transformed = operation.transform(slots[slot]);
+            slots[slot] = transformed;
+            return transformed != null;
+        }
+    }
+
+    private static class PreProcessStage implements Stage {
+        private final int slot;
+        private final DataSetPreProcessor dataSetPreProcessor;
+
+        private PreProcessStage(int slot, DataSetPreProcessor dataSetPreProcessor) {
+            this.slot = slot;
+            this.dataSetPreProcessor = dataSetPreProcessor;
+        }
+
+        @Override
+        public boolean apply(Object[] slots, int currentObservationStep, boolean isFinalObservation) {
+            if (!(slots[slot] instanceof DataSet)) {
+                throw new IllegalArgumentException("The channel data must be a DataSet to call preProcess");
             }
+            dataSetPreProcessor.preProcess((DataSet) slots[slot]);
+            return true;
         }
+    }
 
-        // Check that all channels used to build the observation are instances of
-        // INDArray or DataSet
-        // TODO: Add support for an interface with a toINDArray() method
-        for (String channelName : channelNames) {
-            Object channelData = channelsData.get(channelName);
+    /**
+     * Builds the data of an observation channel from the final channel data. The dimension 0 of the observation data must be 1
+     * (batch count); when the channel data is reshaped for that, the reshaped array is reused as long as the channel
+     * data is the same array.
+     */
+    private static class ObservationStage {
+        private INDArray lastChannelData;
+        private INDArray lastObservationData;
 
+        private INDArray apply(Object channelData) {
+            // TODO: Add support for an interface with a toINDArray() method
             INDArray finalChannelData;
-            if (channelData instanceof DataSet) {
-                finalChannelData = ((DataSet) channelData).getFeatures();
-            } else if (channelData instanceof INDArray) {
+            if (channelData instanceof INDArray) {
                 finalChannelData = (INDArray) channelData;
+            } else if (channelData instanceof DataSet) {
+                finalChannelData = ((DataSet) channelData).getFeatures();
             } else {
                 throw new IllegalStateException("All channels used to build the observation must be instances of DataSet or INDArray");
             }
 
-            // The dimension 0 of all INDArrays must be 1 (batch count)
-            channelsData.replace(channelName, INDArrayHelper.forceCorrectShape(finalChannelData));
+            if (finalChannelData != lastChannelData) {
+                lastChannelData = finalChannelData;
+                lastObservationData = INDArrayHelper.forceCorrectShape(finalChannelData);
+            }
+            return lastObservationData;
         }
+    }
 
-        // TODO: Add support to multi-channel observations
-        INDArray data = ((INDArray) channelsData.get(channelNames[0]));
-        return new Observation(data);
+    /**
+     * The channels as seen by the filters: the current data of the slots, and the other channels of the Map given to
+     * {@link #transform(Map, int, boolean)}, if any.
+     */
+    private class ChannelsView extends AbstractMap<String, Object> {
+        private Map<String, Object> otherChannels;
+
+        @Override
+        public Object get(Object key) {
+            Integer index = channelIndexes.get(key);
+            if (index != null) {
+                return slots[index];
+            }
+            return otherChannels == null ? null : otherChannels.get(key);
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return channelIndexes.containsKey(key) || (otherChannels != null && otherChannels.containsKey(key));
+        }
+
+        @Override
+        public Set<Entry<String, Object>> entrySet() {
+            Map<String, Object> channels = new LinkedHashMap<>();
+            if (otherChannels != null) {
+                channels.putAll(otherChannels);
+            }
+            for (int i = 0; i < slots.length; ++i) {
+                channels.put(slotNames[i], slots[i]);
+            }
+            return channels.entrySet();
+        }
     }
 
     public static class Builder {
 
         private final List<Map.Entry<String, Object>> operations = new ArrayList<Map.Entry<String, Object>>();
-        private final HashSet<String> requiredChannelNames = new HashSet<String>();
 
         /**
          * Add a filter to the transform process steps. Used to skip observations on certain conditions.
@@ -183,7 +393,6 @@ public class TransformProcess {
             Preconditions.checkNotNull(targetChannel, "The targetChannel must not be null");
             Preconditions.checkNotNull(transformOperation, "The transformOperation must not be null");
 
-            requiredChannelNames.add(targetChannel);
             operations.add(Maps.immutableEntry(targetChannel, transformOperation));
             return this;
         }
@@ -198,7 +407,6 @@ public class TransformProcess {
             Preconditions.checkNotNull(targetChannel, "The targetChannel must not be null");
             Preconditions.checkNotNull(dataSetPreProcessor, "The dataSetPreProcessor must not be null");
 
-            requiredChannelNames.add(targetChannel);
             operations.add(Maps.immutableEntry(targetChannel, dataSetPreProcessor));
             return this;
         }
@@ -206,7 +414,8 @@ public class TransformProcess {
         /**
          * Builds the TransformProcess.
          *
-         * @param channelNames A subset of channel names to be used to build the observation
+         * @param channelNames A subset of channel names to be used to build the observation, one observation channel
+         *                     per name
          * @return An instance of TransformProcess
          */
         public TransformProcess build(String... channelNames) {
@@ -216,12 +425,6 @@ public class TransformProcess {
 
             for (String channelName : channelNames) {
                 Preconditions.checkNotNull(channelName, "Error: got a null channel name");
-                requiredChannelNames.add(channelName);
-            }
-
-            // TODO: Remove when multi-channel observation is supported
-            if (channelNames.length != 1) {
-                throw new NotImplementedException("Multi-channel observations is not presently supported.");
             }
 
             return new TransformProcess(this, channelNames);
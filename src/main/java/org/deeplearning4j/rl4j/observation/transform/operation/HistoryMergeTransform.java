@@ -22,6 +22,7 @@ import org.deeplearning4j.rl4j.observation.transform.operation.historymerge.Circ
 import org.deeplearning4j.rl4j.observation.transform.operation.historymerge.HistoryMergeAssembler;
 import org.deeplearning4j.rl4j.observation.transform.operation.historymerge.HistoryMergeElementStore;
 import org.deeplearning4j.rl4j.observation.transform.operation.historymerge.HistoryStackAssembler;
+import org.deeplearning4j.rl4j.observation.transform.operation.historymerge.RingBufferStackStore;
 import org.nd4j.linalg.api.ndarray.INDArray;
 
 /**
@@ -38,6 +39,10 @@ import org.nd4j.linalg.api.ndarray.INDArray;
  * The default is a Circular FIFO.
  * 2) The {@link HistoryMergeAssembler HistoryMergeAssembler} that will assemble the store content into a resulting single INDArray. (ex.: stacked along a dimension, squashed into a single observation, etc...)
  * The default is stacking along the dimension 0.
+ * <p>
+ * When the store is a {@link RingBufferStackStore RingBufferStackStore} and the assembler stacks along the dimension 0,
+ * the store already holds the stacked elements: the result is a view of its buffer and only the incoming INDArray is
+ * copied. The result is then only valid for a limited number of calls (see {@link RingBufferStackStore#getValidStackCount()}).
  *
  * @author Alexandre Boulanger
  */
@@ -48,11 +53,17 @@ public class HistoryMergeTransform implements Operation<INDArray, INDArray>, Res
     private final boolean shouldStoreCopy;
     private final boolean isFirstDimensionBatch;
 
+    // Not null when the store already holds the assembled result
+    private final RingBufferStackStore ringBufferStackStore;
+
     private HistoryMergeTransform(Builder builder) {
         this.historyMergeElementStore = builder.historyMergeElementStore;
         this.historyMergeAssembler = builder.historyMergeAssembler;
         this.shouldStoreCopy = builder.shouldStoreCopy;
         this.isFirstDimensionBatch = builder.isFirstDimenstionBatch;
+        this.ringBufferStackStore = historyMergeElementStore instanceof RingBufferStackStore && historyMergeAssembler instanceof HistoryStackAssembler
+                ? (RingBufferStackStore) historyMergeElementStore
+                : null;
     }
 
     public static Builder builder() {
@@ -69,7 +80,8 @@ public class HistoryMergeTransform implements Operation<INDArray, INDArray>, Res
             element = input;
         }
 
-        if (shouldStoreCopy) {
+        // The ring buffer store always copies the element
+        if (shouldStoreCopy && ringBufferStackStore == null) {
             element = element.dup();
         }
 
@@ -78,7 +90,9 @@ public class HistoryMergeTransform implements Operation<INDArray, INDArray>, Res
             return null;
         }
 
-        INDArray result = historyMergeAssembler.assemble(historyMergeElementStore.get());
+        INDArray result = ringBufferStackStore != null
+                ? ringBufferStackStore.getStack()
+                : historyMergeAssembler.assemble(historyMergeElementStore.get());
 
         return INDArrayHelper.forceCorrectShape(result);
     }
@@ -95,7 +109,7 @@ public class HistoryMergeTransform implements Operation<INDArray, INDArray>, Res
         private boolean isFirstDimenstionBatch = false;
 
         /**
-         * Default is {@link CircularFifoStore CircularFifoStore}
+         * Default is {@link CircularFifoStore CircularFifoStore}. See also {@link RingBufferStackStore RingBufferStackStore}
          */
         public Builder elementStore(HistoryMergeElementStore store) {
             this.historyMergeElementStore = store;
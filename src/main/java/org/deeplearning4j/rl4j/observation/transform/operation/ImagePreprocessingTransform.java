@@ -0,0 +1,307 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Konduit K.K.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+package org.deeplearning4j.rl4j.observation.transform.operation;
+
+import org.bytedeco.javacpp.FloatPointer;
+import org.bytedeco.javacpp.Pointer;
+import org.bytedeco.javacpp.indexer.DoubleIndexer;
+import org.bytedeco.javacpp.indexer.Indexer;
+import org.bytedeco.javacpp.indexer.UByteIndexer;
+import org.datavec.api.transform.Operation;
+import org.nd4j.common.base.Preconditions;
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The ImagePreprocessingTransform crops an image, converts it to grayscale, resizes it with an area interpolation and
+ * normalizes it, in a single pass over the data of the image.
+ * <p>
+ * It does the same as the chain of an EncodableToImageWritableTransform, a MultiImageTransform of a CropImageTransform,
+ * a ResizeImageTransform and a ColorConversionTransform(COLOR_BGR2GRAY), an ImageWritableToINDArrayTransform and a
+ * {@link SimpleNormalizationTransform SimpleNormalizationTransform}, without converting the image to a Frame and a Mat
+ * and back, and without rounding the intermediate results to 8-bit integers. Unlike the default ResizeImageTransform,
+ * the resizing averages all the pixels covered by an output pixel (like OpenCV's INTER_AREA), so downscaling does not
+ * alias.
+ * <p>
+ * The input is a [channels, height, width] or [1, channels, height, width] INDArray of any data type, with 1 channel
+ * or 3 channels in BGR order. The output is a [1, outputHeight, outputWidth] INDArray of the default data type.
+ * <p>
+ * The output INDArray is reused: it is overwritten by the next call. The next steps must copy it if they keep it (for
+ * example a {@link HistoryMergeTransform HistoryMergeTransform} with shouldStoreCopy or a
+ * {@link org.deeplearning4j.rl4j.observation.transform.operation.historymerge.RingBufferStackStore RingBufferStackStore}).
+ */
+public class ImagePreprocessingTransform implements Operation<INDArray, INDArray> {
+
+    // The weights of the blue, green and red channels, as with COLOR_BGR2GRAY
+    private static final float BLUE_WEIGHT = 0.114f;
+    private static final float GREEN_WEIGHT = 0.587f;
+    private static final float RED_WEIGHT = 0.299f;
+
+    private final int cropTop;
+    private final int cropLeft;
+    private final int cropBottom;
+    private final int cropRight;
+    private final int outputWidth;
+    private final int outputHeight;
+    private final float offset;
+    private final float divisor;
+
+    // Computed for the shape of the input, when it changes
+    private long[] inputShape;
+    private int channels;
+    private int height;
+    private int width;
+    private AreaWeights rowWeights;
+    private AreaWeights columnWeights;
+    private float[] grayRow;
+    private float[] channelRow;
+    private float[] resizedRow;
+    private float[] outputData;
+    private INDArray output;
+
+    private ImagePreprocessingTransform(Builder builder, int outputWidth, int outputHeight) {
+        this.cropTop = builder.cropTop;
+        this.cropLeft = builder.cropLeft;
+        this.cropBottom = builder.cropBottom;
+        this.cropRight = builder.cropRight;
+        this.offset = (float) builder.min;
+        this.divisor = (float) (builder.max - builder.min);
+        this.outputWidth = outputWidth;
+        this.outputHeight = outputHeight;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public INDArray transform(INDArray input) {
+        // The pixels are read by their index in the data buffer
+        if (input.isView() || input.ordering() != 'c' || input.elementWiseStride() != 1) {
+            input = input.dup('c');
+        }
+
+        if (!Arrays.equals(inputShape, input.shape())) {
+            prepare(input.shape());
+        }
+
+        DataBuffer data = input.data();
+        int planeSize = height * width;
+        int croppedWidth = grayRow.length;
+        Arrays.fill(outputData, 0.0f);
+
+        for (int y = cropTop; y < height - cropBottom; ++y) {
+            int rowOffset = y * width + cropLeft;
+            if (channels == 1) {
+                readRow(data, rowOffset, grayRow);
+            } else {
+                readRow(data, rowOffset, channelRow);
+                for (int x = 0; x < croppedWidth; ++x) {
+                    grayRow[x] = BLUE_WEIGHT * channelRow[x];
+                }
+                readRow(data, rowOffset + planeSize, channelRow);
+                for (int x = 0; x < croppedWidth; ++x) {
+                    grayRow[x] += GREEN_WEIGHT * channelRow[x];
+                }
+                readRow(data, rowOffset + 2 * planeSize, channelRow);
+                for (int x = 0; x < croppedWidth; ++x) {
+                    grayRow[x] += RED_WEIGHT * channelRow[x];
+                }
+            }
+
+            columnWeights.resize(grayRow, resizedRow);
+
+            // Add the resized row to each output row that it covers
+            int sourceRow = y - cropTop;
+            for (int j = rowWeights.start[sourceRow]; j < rowWeights.start[sourceRow + 1]; ++j) {
+                int outputOffset = rowWeights.outputIndexes[j] * outputWidth;
+                float weight = rowWeights.weights[j];
+                for (int x = 0; x < outputWidth; ++x) {
+                    outputData[outputOffset + x] += weight * resizedRow[x];
+                }
+            }
+        }
+
+        for (int i = 0; i < outputData.length; ++i) {
+            outputData[i] = (outputData[i] - offset) / divisor;
+        }
+        writeOutput();
+
+        return output;
+    }
+
+    // Read row.length values starting at offset. Float data is copied in bulk from its pointer and the other usual data
+    // types are read through their typed indexer, which avoids a virtual call and a conversion per value.
+    private static void readRow(DataBuffer data, long offset, float[] row) {
+        Pointer pointer = data.pointer();
+        Indexer indexer = data.indexer();
+        if (pointer instanceof FloatPointer) {
+            FloatPointer floatPointer = (FloatPointer) pointer;
+            long position = floatPointer.position();
+            floatPointer.position(position + offset).get(row, 0, row.length);
+            floatPointer.position(position);
+        } else if (indexer instanceof UByteIndexer) {
+            UByteIndexer uByteIndexer = (UByteIndexer) indexer;
+            for (int x = 0; x < row.length; ++x) {
+                row[x] = uByteIndexer.get(offset + x);
+            }
+        } else if (indexer instanceof DoubleIndexer) {
+            DoubleIndexer doubleIndexer = (DoubleIndexer) indexer;
+            for (int x = 0; x < row.length; ++x) {
+                row[x] = (float) doubleIndexer.get(offset + x);
+            }
+        } else {
+            for (int x = 0; x < row.length; ++x) {
+                row[x] = data.getFloat(offset + x);
+            }
+        }
+    }
+
+    private void writeOutput() {
+        DataBuffer outputBuffer = output.data();
+        Pointer pointer = outputBuffer.pointer();
+        if (pointer instanceof FloatPointer) {
+            // A single bulk copy; the output is never a view, so its data starts at the position of the pointer
+            ((FloatPointer) pointer).put(outputData, 0, outputData.length);
+        } else {
+            for (int i = 0; i < outputData.length; ++i) {
+                outputBuffer.put(i, outputData[i]);
+            }
+        }
+    }
+
+    private void prepare(long[] shape) {
+        Preconditions.checkArgument(shape.length == 3 || (shape.length == 4 && shape[0] == 1),
+                "Expected a [channels, height, width] or [1, channels, height, width] input, got shape %s", shape);
+
+        int rank = shape.length;
+        channels = (int) shape[rank - 3];
+        height = (int) shape[rank - 2];
+        width = (int) shape[rank - 1];
+        Preconditions.checkArgument(channels == 1 || channels == 3, "Expected an input with 1 or 3 channels, got %s", channels);
+
+        int croppedHeight = height - cropTop - cropBottom;
+        int croppedWidth = width - cropLeft - cropRight;
+        Preconditions.checkArgument(croppedHeight > 0 && croppedWidth > 0,
+                "The crop (top %s, left %s, bottom %s, right %s) leaves nothing of a %sx%s input", cropTop, cropLeft, cropBottom, cropRight, height, width);
+
+        rowWeights = new AreaWeights(croppedHeight, outputHeight);
+        columnWeights = new AreaWeights(croppedWidth, outputWidth);
+        grayRow = new float[croppedWidth];
+        channelRow = new float[croppedWidth];
+        resizedRow = new float[outputWidth];
+        outputData = new float[outputHeight * outputWidth];
+        output = Nd4j.create(Nd4j.dataType(), 1, outputHeight, outputWidth);
+        inputShape = shape.clone();
+    }
+
+    /**
+     * The area interpolation weights along one dimension: the fraction of each output pixel covered by each source pixel.
+     * The contributions are sorted by source pixel: those of the source pixel i are in [start[i], start[i + 1]).
+     */
+    private static class AreaWeights {
+        private final int[] start;
+        private final int[] sourceIndexes;
+        private final int[] outputIndexes;
+        private final float[] weights;
+
+        private AreaWeights(int sourceSize, int outputSize) {
+            double scale = (double) sourceSize / outputSize;
+
+            List<double[]> contributions = new ArrayList<>();
+            for (int o = 0; o < outputSize; ++o) {
+                double begin = o * scale;
+                double end = Math.min((o + 1) * scale, sourceSize);
+                for (int s = (int) Math.floor(begin); s < end; ++s) {
+                    double coverage = Math.min(end, s + 1) - Math.max(begin, s);
+                    if (coverage > 0.0) {
+                        contributions.add(new double[]{s, o, coverage / scale});
+                    }
+                }
+            }
+            // Already sorted by output pixel, and the source pixels of consecutive output pixels are increasing
+            start = new int[sourceSize + 1];
+            sourceIndexes = new int[contributions.size()];
+            outputIndexes = new int[contributions.size()];
+            weights = new float[contributions.size()];
+            for (int i = 0; i < contributions.size(); ++i) {
+                double[] contribution = contributions.get(i);
+                sourceIndexes[i] = (int) contribution[0];
+                outputIndexes[i] = (int) contribution[1];
+                weights[i] = (float) contribution[2];
+                ++start[sourceIndexes[i] + 1];
+            }
+            for (int s = 0; s < sourceSize; ++s) {
+                start[s + 1] += start[s];
+            }
+        }
+
+        private void resize(float[] source, float[] output) {
+            Arrays.fill(output, 0.0f);
+            for (int i = 0; i < weights.length; ++i) {
+                output[outputIndexes[i]] += weights[i] * source[sourceIndexes[i]];
+            }
+        }
+    }
+
+    public static class Builder {
+        private int cropTop = 0;
+        private int cropLeft = 0;
+        private int cropBottom = 0;
+        private int cropRight = 0;
+        private double min = 0.0;
+        private double max = 255.0;
+
+        /**
+         * The number of pixels removed from each side of the input before it is resized, like a CropImageTransform.
+         * <p>
+         * Default is no cropping
+         */
+        public Builder crop(int cropTop, int cropLeft, int cropBottom, int cropRight) {
+            Preconditions.checkArgument(cropTop >= 0 && cropLeft >= 0 && cropBottom >= 0 && cropRight >= 0, "The crop must not be negative");
+
+            this.cropTop = cropTop;
+            this.cropLeft = cropLeft;
+            this.cropBottom = cropBottom;
+            this.cropRight = cropRight;
+            return this;
+        }
+
+        /**
+         * The grayscale values are normalized to (value - min) / (max - min), like a SimpleNormalizationTransform.
+         * <p>
+         * Default is min = 0 and max = 255
+         */
+        public Builder normalization(double min, double max) {
+            Preconditions.checkArgument(min < max, "Min must be smaller than max.");
+
+            this.min = min;
+            this.max = max;
+            return this;
+        }
+
+        public ImagePreprocessingTransform build(int outputWidth, int outputHeight) {
+            Preconditions.checkArgument(outputWidth > 0 && outputHeight > 0, "The output size must be positive, got %sx%s", outputWidth, outputHeight);
+
+            return new ImagePreprocessingTransform(this, outputWidth, outputHeight);
+        }
+    }
+}
@@ -0,0 +1,191 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Konduit K.K.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+package org.deeplearning4j.rl4j.observation.transform.operation.historymerge;
+
+import lombok.Getter;
+import org.deeplearning4j.rl4j.observation.transform.operation.HistoryMergeTransform;
+import org.nd4j.common.base.Preconditions;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.indexing.INDArrayIndex;
+import org.nd4j.linalg.indexing.NDArrayIndex;
+
+import java.util.Arrays;
+
+/**
+ * RingBufferStackStore is used with the {@link HistoryMergeTransform HistoryMergeTransform}. Like the
+ * {@link CircularFifoStore CircularFifoStore}, it keeps the last historyLength elements, but it also stacks them: the
+ * elements are copied, in the data type of the network, one after the other in a single preallocated
+ * [capacity, element shape] buffer, so that the last historyLength elements are always a contiguous
+ * [historyLength, element shape] view of the buffer (see {@link #getStack()}).
+ * <p>
+ * Each added element is copied once. When the end of the buffer is reached, the last historyLength - 1 elements are
+ * copied back to its beginning, which adds (historyLength - 1) / (capacity - historyLength + 1) element copies per
+ * element on average.
+ * <p>
+ * The stacks are views: a stack stays valid while at least capacity - 2 * historyLength + 1 more elements are added,
+ * {@link #reset()} included (see {@link #getValidStackCount()}). Whoever keeps a stack longer than that must copy it.
+ */
+public class RingBufferStackStore implements HistoryMergeElementStore {
+
+    /**
+     * The default capacity of the buffer, as a multiple of the history length
+     */
+    public static final int DEFAULT_CAPACITY_FACTOR = 4;
+
+    @Getter
+    private final int historyLength;
+    @Getter
+    private final int capacity;
+
+    private INDArray buffer;
+    private long[] elementShape;
+
+    // elements[i] is the view of the row i of the buffer, and stacks[i] of the rows [i, i + historyLength)
+    private INDArray[] elements;
+    private INDArray[] stacks;
+
+    // The index of the buffer row where the next element is copied
+    private int cursor = 0;
+
+    // The number of elements added since the last reset, up to historyLength
+    private int count = 0;
+
+    public RingBufferStackStore(int historyLength) {
+        this(historyLength, DEFAULT_CAPACITY_FACTOR * historyLength);
+    }
+
+    /**
+     * @param historyLength The number of elements in a stack
+     * @param capacity      The number of elements in the buffer; must be at least 2 * historyLength
+     */
+    public RingBufferStackStore(int historyLength, int capacity) {
+        Preconditions.checkArgument(historyLength > 0, "The history length must be at least 1, got %s", historyLength);
+        Preconditions.checkArgument(capacity >= 2 * historyLength, "The capacity must be at least twice the history length (%s), got %s", historyLength, capacity);
+
+        this.historyLength = historyLength;
+        this.capacity = capacity;
+    }
+
+    /**
+     * @return The number of elements that can be added after a stack has been returned by {@link #getStack()} before
+     * the stack is overwritten
+     */
+    public int getValidStackCount() {
+        return capacity - 2 * historyLength + 1;
+    }
+
+    /**
+     * Add an element to the store, if this addition would make the store to overflow, the new element replaces the oldest.
+     * The element is copied in the buffer and is converted to the data type of the network.
+     *
+     * @param elem
+     */
+    @Override
+    public void add(INDArray elem) {
+        if (buffer == null) {
+            allocate(elem.shape());
+        } else {
+            Preconditions.checkArgument(Arrays.equals(elementShape, elem.shape()), "Expected an element of shape %s, got %s", elementShape, elem.shape());
+        }
+
+        if (cursor == capacity) {
+            // Move the last historyLength - 1 elements to the beginning of the buffer. The ranges do not overlap.
+            int kept = historyLength - 1;
+            if (kept > 0) {
+                rows(0, kept).assign(rows(capacity - kept, capacity));
+            }
+            cursor = kept;
+        }
+
+        elements[cursor].assign(elem);
+        ++cursor;
+        if (count < historyLength) {
+            ++count;
+        }
+    }
+
+    /**
+     * @return The content of the store, returned in order from oldest to newest. The elements are views of the buffer.
+     */
+    @Override
+    public INDArray[] get() {
+        INDArray[] array = new INDArray[count];
+        for (int i = 0; i < count; ++i) {
+            array[i] = elements[cursor - count + i];
+        }
+        return array;
+    }
+
+    /**
+     * The last historyLength elements, from oldest to newest, stacked along a new dimension 0. Nothing is copied nor
+     * allocated: the stack is a view of the buffer. Must only be called when the store {@link #isReady() is ready}.
+     *
+     * @return A [historyLength, element shape] view
+     */
+    public INDArray getStack() {
+        Preconditions.checkState(count == historyLength, "The store is not ready: it has %s elements, expected %s", count, historyLength);
+        return stacks[cursor - historyLength];
+    }
+
+    /**
+     * The RingBufferStackStore needs historyLength elements to be ready.
+     *
+     * @return false when the number of elements added since the last reset is less than the history length
+     */
+    @Override
+    public boolean isReady() {
+        return count == historyLength;
+    }
+
+    /**
+     * Clears the store. The buffer is kept, and the elements of the new episode are added after the current ones so
+     * that the stacks already returned stay valid.
+     */
+    @Override
+    public void reset() {
+        count = 0;
+    }
+
+    private void allocate(long[] shape) {
+        elementShape = shape.clone();
+
+        long[] bufferShape = new long[shape.length + 1];
+        bufferShape[0] = capacity;
+        System.arraycopy(shape, 0, bufferShape, 1, shape.length);
+        buffer = Nd4j.create(Nd4j.dataType(), bufferShape);
+
+        elements = new INDArray[capacity];
+        for (int i = 0; i < capacity; ++i) {
+            elements[i] = buffer.slice(i);
+        }
+
+        stacks = new INDArray[capacity - historyLength + 1];
+        for (int i = 0; i < stacks.length; ++i) {
+            stacks[i] = rows(i, i + historyLength);
+        }
+    }
+
+    // The view of the buffer rows [from, to)
+    private INDArray rows(int from, int to) {
+        INDArrayIndex[] indexes = new INDArrayIndex[buffer.rank()];
+        indexes[0] = NDArrayIndex.interval(from, to);
+        for (int i = 1; i < indexes.length; ++i) {
+            indexes[i] = NDArrayIndex.all();
+        }
+        return buffer.get(indexes);
+    }
+}
@@ -16,12 +16,14 @@
 
 package org.deeplearning4j.rl4j.policy;
 
-import org.deeplearning4j.rl4j.learning.Learning;
 import org.deeplearning4j.rl4j.network.ac.ActorCriticCompGraph;
 import org.deeplearning4j.rl4j.network.ac.ActorCriticSeparate;
 import org.deeplearning4j.rl4j.network.ac.IActorCritic;
 import org.deeplearning4j.rl4j.observation.Observation;
 import org.deeplearning4j.rl4j.space.Encodable;
+import org.nd4j.common.base.Preconditions;
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.buffer.DataType;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.api.rng.Random;
 import org.nd4j.linalg.factory.Nd4j;
@@ -34,12 +36,25 @@ import java.io.IOException;
  * A stochastic policy thats explore the environment based on
  * the softmax output of the actor critic, but objects constructed
  * with a {@link Random} argument of null return the max only.
+ * <p>
+ * The action probabilities are copied into a reused primitive array before sampling, so an instance must not be shared
+ * between threads.
  */
 public class ACPolicy<OBSERVATION extends Encodable> extends Policy<Integer> {
 
+    /**
+     * How far from 1 the sum of the probabilities computed in reduced precision (FLOAT16 or BFLOAT16) can be
+     */
+    private static final float REDUCED_PRECISION_SUM_TOLERANCE = 1e-2f;
+
     final private IActorCritic actorCritic;
     Random rnd;
 
+    /**
+     * The action probabilities copied from the network output, reused between calls
+     */
+    private float[] probabilities = new float[0];
+
     public ACPolicy(IActorCritic actorCritic) {
         this(actorCritic, Nd4j.getRandom());
     }
@@ -71,26 +86,155 @@ public class ACPolicy<OBSERVATION extends Encodable> extends Policy<Integer> {
 
     @Override
     public Integer nextAction(Observation obs) {
+        if (obs.getNumChannels() > 1) {
+            return nextAction(obs.getChannelsData());
+        }
         return nextAction(obs.getData());
     }
 
     public Integer nextAction(INDArray input) {
+        return nextActionFromProbabilities(actorCritic.outputAll(input)[1]);
+    }
+
+    /**
+     * Select an action for the channels of a multi-channel observation. The actor-critic must have one input per channel.
+     *
+     * @param inputs The data of each channel
+     * @return The selected action
+     */
+    public Integer nextAction(INDArray[] inputs) {
+        return nextActionFromProbabilities(actorCritic.outputAll(inputs)[1]);
+    }
+
+    /**
+     * Select one action per observation of a batch.
+     *
+     * @param input A batch of observations
+     * @return The selected actions
+     */
+    public int[] nextActions(INDArray input) {
         INDArray output = actorCritic.outputAll(input)[1];
+        int[] actions = new int[(int) output.size(0)];
+        nextActionsFromProbabilities(output, actions);
+        return actions;
+    }
+
+    /**
+     * Sample an action from the output of the policy network, or take the most probable if no {@link Random} was given
+     *
+     * @param output The action probabilities
+     */
+    protected Integer nextActionFromProbabilities(INDArray output) {
+        int numActions = (int) output.length();
+        float[] probabilities = copyProbabilities(output, numActions);
+
         if (rnd == null) {
-            return Learning.getMaxAction(output);
+            return getMaxAction(probabilities, 0, numActions);
+        }
+        return sampleAction(probabilities, 0, numActions, rnd.nextFloat(), output);
+    }
+
+    /**
+     * Same as {@link #nextActionFromProbabilities(INDArray)} for each row of a [batchSize, numActions] output of the
+     * policy network. The rows are sampled in order.
+     *
+     * @param output  The action probabilities
+     * @param actions Receives the selected actions; must hold at least batchSize elements
+     */
+    public void nextActionsFromProbabilities(INDArray output, int[] actions) {
+        Preconditions.checkArgument(output.rank() == 2, "Expected a [batchSize, numActions] output, got shape %s", output.shape());
+        int batchSize = (int) output.size(0);
+        int numActions = (int) output.size(1);
+        Preconditions.checkArgument(actions.length >= batchSize, "The actions array has %s elements, expected at least %s", actions.length, batchSize);
+
+        float[] probabilities = copyProbabilities(output, batchSize * numActions);
+        for (int i = 0; i < batchSize; ++i) {
+            int offset = i * numActions;
+            actions[i] = rnd == null
+                    ? getMaxAction(probabilities, offset, numActions)
+                    : sampleAction(probabilities, offset, numActions, rnd.nextFloat(), output);
+        }
+    }
+
+    // Copy the output, in row-major order, into a reused array. Reads the data buffer directly when the output is
+    // contiguous, which avoids the shape and bounds checks of INDArray.getFloat()
+    private float[] copyProbabilities(INDArray output, int length) {
+        if (probabilities.length < length) {
+            probabilities = new float[length];
+        }
+
+        if (output.elementWiseStride() == 1 && (output.ordering() == 'c' || output.rank() == 1 || output.size(0) == 1)) {
+            DataBuffer data = output.data();
+            for (int i = 0; i < length; ++i) {
+                probabilities[i] = data.getFloat(i);
+            }
+            return probabilities;
+        }
+
+        if (output.rank() == 2) {
+            int numActions = (int) output.size(1);
+            for (int i = 0; i < length; ++i) {
+                probabilities[i] = output.getFloat(i / numActions, i % numActions);
+            }
+        } else {
+            for (int i = 0; i < length; ++i) {
+                probabilities[i] = output.getFloat(i);
+            }
+        }
+        return probabilities;
+    }
+
+    // Inverse CDF sampling
+    private static int sampleAction(float[] probabilities, int offset, int numActions, float rVal, INDArray output) {
+        boolean isReducedPrecision = isReducedPrecision(output.dataType());
+        if (isReducedPrecision) {
+            // The probabilities computed in reduced precision do not sum exactly to 1: sample from the distribution
+            // normalized by their actual sum
+            float sum = 0.0f;
+            for (int i = 0; i < numActions; ++i) {
+                sum += probabilities[offset + i];
+            }
+            if (Math.abs(sum - 1.0f) > REDUCED_PRECISION_SUM_TOLERANCE) {
+                throw new RuntimeException("Output from network is not a probability distribution: " + output);
+            }
+            rVal *= sum;
         }
-        float rVal = rnd.nextFloat();
-        for (int i = 0; i < output.length(); i++) {
-            //System.out.println(i + " " + rVal + " " + output.getFloat(i));
-            if (rVal < output.getFloat(i)) {
+
+        for (int i = 0; i < numActions; ++i) {
+            float probability = probabilities[offset + i];
+            if (rVal < probability) {
                 return i;
-            } else
-                rVal -= output.getFloat(i);
+            }
+            rVal -= probability;
+        }
+
+        // Only the rounding of the subtractions above can leave rVal past the last normalized probability
+        if (isReducedPrecision) {
+            for (int i = numActions - 1; i >= 0; --i) {
+                if (probabilities[offset + i] > 0.0f) {
+                    return i;
+                }
+            }
         }
 
         throw new RuntimeException("Output from network is not a probability distribution: " + output);
     }
 
+    private static boolean isReducedPrecision(DataType dataType) {
+        return dataType == DataType.FLOAT16 || dataType == DataType.BFLOAT16;
+    }
+
+    // The first action with the highest probability, like Learning.getMaxAction()
+    private static int getMaxAction(float[] probabilities, int offset, int numActions) {
+        int maxAction = 0;
+        for (int i = 1; i < numActions; ++i) {
+            if (probabilities[offset + i] > probabilities[offset + maxAction]) {
+                maxAction = i;
+            }
+        }
+        return maxAction;
+    }
+
     public void save(String filename) throws IOException {
         actorCritic.save(filename);
     }
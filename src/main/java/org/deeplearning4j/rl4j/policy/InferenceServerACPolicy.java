@@ -0,0 +1,52 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Konduit K.K.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.deeplearning4j.rl4j.policy;
+
+import org.deeplearning4j.rl4j.learning.async.InferenceServer;
+import org.deeplearning4j.rl4j.network.ac.IActorCritic;
+import org.deeplearning4j.rl4j.space.Encodable;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.rng.Random;
+
+/**
+ * An {@link ACPolicy} that gets the action probabilities from a shared {@link InferenceServer} instead of running
+ * the network itself. The calling thread waits for the result of its observation.
+ */
+public class InferenceServerACPolicy<OBSERVATION extends Encodable> extends ACPolicy<OBSERVATION> {
+
+    private final InferenceServer inferenceServer;
+
+    /**
+     * @param actorCritic     The network returned by {@link #getNeuralNet()}; not used to select the actions
+     * @param inferenceServer The inference server
+     * @param rnd             Used to sample the actions. If null, the most probable action is taken.
+     */
+    public InferenceServerACPolicy(IActorCritic actorCritic, InferenceServer inferenceServer, Random rnd) {
+        super(actorCritic, rnd);
+        this.inferenceServer = inferenceServer;
+    }
+
+    @Override
+    public Integer nextAction(INDArray input) {
+        return nextActionFromProbabilities(inferenceServer.submit(input).join());
+    }
+
+    @Override
+    public Integer nextAction(INDArray[] inputs) {
+        return nextActionFromProbabilities(inferenceServer.submit(inputs).join());
+    }
+}
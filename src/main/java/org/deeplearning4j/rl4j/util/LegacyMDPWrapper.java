@@ -3,10 +3,6 @@ package org.deeplearning4j.rl4j.util;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
-import org.datavec.image.transform.ColorConversionTransform;
-import org.datavec.image.transform.CropImageTransform;
-import org.datavec.image.transform.MultiImageTransform;
-import org.datavec.image.transform.ResizeImageTransform;
 import org.deeplearning4j.gym.StepReply;
 import org.deeplearning4j.rl4j.learning.IHistoryProcessor;
 import org.deeplearning4j.rl4j.mdp.MDP;
@@ -14,19 +10,16 @@ import org.deeplearning4j.rl4j.observation.Observation;
 import org.deeplearning4j.rl4j.observation.transform.EncodableToINDArrayTransform;
 import org.deeplearning4j.rl4j.observation.transform.TransformProcess;
 import org.deeplearning4j.rl4j.observation.transform.filter.UniformSkippingFilter;
-import org.deeplearning4j.rl4j.observation.transform.legacy.EncodableToImageWritableTransform;
-import org.deeplearning4j.rl4j.observation.transform.legacy.ImageWritableToINDArrayTransform;
 import org.deeplearning4j.rl4j.observation.transform.operation.HistoryMergeTransform;
-import org.deeplearning4j.rl4j.observation.transform.operation.SimpleNormalizationTransform;
+import org.deeplearning4j.rl4j.observation.transform.operation.ImagePreprocessingTransform;
+import org.deeplearning4j.rl4j.observation.transform.operation.historymerge.RingBufferStackStore;
 import org.deeplearning4j.rl4j.space.ActionSpace;
 import org.deeplearning4j.rl4j.space.Encodable;
 import org.deeplearning4j.rl4j.space.ObservationSpace;
 import org.nd4j.linalg.api.ndarray.INDArray;
 
-import java.util.HashMap;
-import java.util.Map;
-
-import static org.bytedeco.opencv.global.opencv_imgproc.COLOR_BGR2GRAY;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 public class LegacyMDPWrapper<OBSERVATION extends Encodable, A, AS extends ActionSpace<A>> implements MDP<Observation, A, AS> {
 
@@ -42,9 +35,21 @@ public class LegacyMDPWrapper<OBSERVATION extends Encodable, A, AS extends Actio
     @Getter(AccessLevel.PRIVATE)
     private IHistoryProcessor historyProcessor;
 
+    /**
+     * The executor that runs the transform process in {@link #stepAsync(Object)}. If null, stepAsync transforms the
+     * observation on the calling thread.
+     */
+    @Setter
+    private Executor preprocessingExecutor;
+
     private int skipFrame = 1;
     private int steps = 0;
 
+    // The channels given to transformProcess, by index
+    private TransformProcess channelsDataTransformProcess;
+    private Object[] channelsData;
+    private int dataChannelIndex;
+
 
     public LegacyMDPWrapper(MDP<OBSERVATION, A, AS> wrappedMDP, IHistoryProcessor historyProcessor) {
         this.wrappedMDP = wrappedMDP;
@@ -76,17 +81,13 @@ public class LegacyMDPWrapper<OBSERVATION extends Encodable, A, AS extends Actio
 
             transformProcess = TransformProcess.builder()
                     .filter(new UniformSkippingFilter(skipFrame))
-                    .transform("data", new EncodableToImageWritableTransform())
-                    .transform("data", new MultiImageTransform(
-                            new CropImageTransform(historyProcessor.getConf().getOffsetY(), historyProcessor.getConf().getOffsetX(), cropBottom, cropRight),
-                            new ResizeImageTransform(historyProcessor.getConf().getRescaledWidth(), historyProcessor.getConf().getRescaledHeight()),
-                            new ColorConversionTransform(COLOR_BGR2GRAY)
-                            //new ShowImageTransform("crop + resize + greyscale")
-                    ))
-                    .transform("data", new ImageWritableToINDArrayTransform())
-                    .transform("data", new SimpleNormalizationTransform(0.0, 255.0))
+                    .transform("data", new EncodableToINDArrayTransform())
+                    .transform("data", ImagePreprocessingTransform.builder()
+                            .crop(historyProcessor.getConf().getOffsetY(), historyProcessor.getConf().getOffsetX(), cropBottom, cropRight)
+                            .build(historyProcessor.getConf().getRescaledWidth(), historyProcessor.getConf().getRescaledHeight()))
                     .transform("data", HistoryMergeTransform.builder()
                             .isFirstDimenstionBatch(true)
+                            .elementStore(new RingBufferStackStore(frameStackLength))
                             .build(frameStackLength))
                     .build("data");
         } else {
@@ -112,27 +113,50 @@ public class LegacyMDPWrapper<OBSERVATION extends Encodable, A, AS extends Actio
             skipFrame = historyProcessor.getConf().getSkipFrame();
         }
 
-        Map<String, Object> channelsData = buildChannelsData(rawResetResponse);
+        Object[] channelsData = buildChannelsData(rawResetResponse);
         return transformProcess.transform(channelsData, 0, false);
     }
 
     @Override
     public StepReply<Observation> step(A a) {
-        IHistoryProcessor historyProcessor = getHistoryProcessor();
+        StepReply<OBSERVATION> rawStepReply = stepWrappedMDP(a);
+        int stepOfObservation = steps++;
 
-        StepReply<OBSERVATION> rawStepReply = wrappedMDP.step(a);
-        INDArray rawObservation = getInput(rawStepReply.getObservation());
+        Object[] channelsData = buildChannelsData(rawStepReply.getObservation());
+        Observation observation = transformProcess.transform(channelsData, stepOfObservation, rawStepReply.isDone());
 
-        if (historyProcessor != null) {
-            historyProcessor.record(rawObservation);
-        }
+        return new StepReply<Observation>(observation, rawStepReply.getReward(), rawStepReply.isDone(), rawStepReply.getInfo());
+    }
 
+    /**
+     * Same as {@link #step(Object)}, but the observation is transformed by the preprocessing executor, if one is set.
+     * The caller can step other environments while the observation is being transformed.
+     * <p>
+     * The observation must be complete before step, stepAsync or reset are called again.
+     *
+     * @return The reply of the step, with the future observation
+     */
+    public StepReply<CompletableFuture<Observation>> stepAsync(A a) {
+        StepReply<OBSERVATION> rawStepReply = stepWrappedMDP(a);
         int stepOfObservation = steps++;
 
-        Map<String, Object> channelsData = buildChannelsData(rawStepReply.getObservation());
-        Observation observation = transformProcess.transform(channelsData, stepOfObservation, rawStepReply.isDone());
+        Object[] channelsData = buildChannelsData(rawStepReply.getObservation());
+        CompletableFuture<Observation> observation = preprocessingExecutor == null
+                ? CompletableFuture.completedFuture(transformProcess.transform(channelsData, stepOfObservation, rawStepReply.isDone()))
+                : transformProcess.transformAsync(channelsData, stepOfObservation, rawStepReply.isDone(), preprocessingExecutor);
 
-        return new StepReply<Observation>(observation, rawStepReply.getReward(), rawStepReply.isDone(), rawStepReply.getInfo());
+        return new StepReply<>(observation, rawStepReply.getReward(), rawStepReply.isDone(), rawStepReply.getInfo());
+    }
+
+    private StepReply<OBSERVATION> stepWrappedMDP(A a) {
+        StepReply<OBSERVATION> rawStepReply = wrappedMDP.step(a);
+
+        IHistoryProcessor historyProcessor = getHistoryProcessor();
+        if (historyProcessor != null) {
+            historyProcessor.record(getInput(rawStepReply.getObservation()));
+        }
+
+        return rawStepReply;
     }
 
     private void record(OBSERVATION obs) {
@@ -144,10 +168,15 @@ public class LegacyMDPWrapper<OBSERVATION extends Encodable, A, AS extends Actio
         }
     }
 
-    private Map<String, Object> buildChannelsData(final OBSERVATION obs) {
-        return new HashMap<String, Object>() {{
-            put("data", obs);
-        }};
+    private Object[] buildChannelsData(final OBSERVATION obs) {
+        if (channelsDataTransformProcess != transformProcess) {
+            channelsDataTransformProcess = transformProcess;
+            channelsData = new Object[transformProcess.getNumChannels()];
+            dataChannelIndex = transformProcess.getChannelIndex("data");
+        }
+
+        channelsData[dataChannelIndex] = obs;
+        return channelsData;
     }
 
     @Override
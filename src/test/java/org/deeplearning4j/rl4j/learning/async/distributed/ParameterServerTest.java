@@ -0,0 +1,146 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Konduit K.K.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.deeplearning4j.rl4j.learning.async.distributed;
+
+import org.deeplearning4j.rl4j.learning.async.AsyncGlobal;
+import org.deeplearning4j.rl4j.learning.configuration.LearningConfiguration;
+import org.deeplearning4j.rl4j.network.ac.ActorCriticFactoryCompGraphStdDense;
+import org.deeplearning4j.rl4j.network.ac.IActorCritic;
+import org.deeplearning4j.rl4j.network.configuration.NetworkConfiguration;
+import org.junit.Test;
+import org.nd4j.linalg.api.buffer.DataType;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.learning.config.Adam;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Trains a {@link ParameterServer} over a {@link TcpTransport} on the loopback interface, through a
+ * {@link RemoteAsyncGlobal}, and checks the parameter broadcasts and the parameters of the worker.
+ */
+public class ParameterServerTest {
+
+    private static final int NUM_INPUTS = 4;
+    private static final int NUM_ACTIONS = 2;
+    private static final int BATCH_SIZE = 8;
+    private static final int NUM_UPDATES = 10;
+    private static final float LEARNING_RATE = 1e-3f;
+
+    // The deltas are sent in half precision, relative to the largest change of each network; the changes of an update
+    // are about the learning rate
+    private static final float FP16_TOLERANCE = 1e-5f;
+
+    private static final NetworkConfiguration NETWORK_CONFIGURATION = NetworkConfiguration.builder()
+            .numHiddenNodes(16)
+            .numLayers(2)
+            .updater(new Adam(LEARNING_RATE))
+            .build();
+
+    @Test
+    public void when_allChangesAreSent_expect_workerParametersCloseToServer() throws Exception {
+        float maxDifference = train(0.0f);
+        assertTrue("max difference " + maxDifference, maxDifference <= FP16_TOLERANCE);
+    }
+
+    @Test
+    public void when_smallChangesAreHeldBack_expect_workerParametersWithinDeltaThreshold() throws Exception {
+        float deltaThreshold = 2 * LEARNING_RATE;
+        float maxDifference = train(deltaThreshold);
+        assertTrue("max difference " + maxDifference, maxDifference <= deltaThreshold + FP16_TOLERANCE);
+
+        // Some changes were held back: the worker did not get all of them
+        assertTrue("max difference " + maxDifference, maxDifference > FP16_TOLERANCE);
+    }
+
+    // Returns the largest difference between the parameters of the worker and of the server, after the training
+    private static float train(float deltaThreshold) throws Exception {
+        Nd4j.getRandom().setSeed(123);
+        IActorCritic network = buildNetwork();
+        AsyncGlobal<IActorCritic> served = new AsyncGlobal<>(network, LearningConfiguration.builder().maxStep(Integer.MAX_VALUE).build());
+
+        ParameterServer<IActorCritic> server = new ParameterServer<>(served, new TcpTransport("localhost", 0), Float16GradientCodec::new, deltaThreshold);
+        int port = ((TcpTransport.Server) server.start()).getLocalPort();
+        RemoteAsyncGlobal<IActorCritic> remote = null;
+        try {
+            // The worker starts from other parameters; the first pull replaces them
+            remote = new RemoteAsyncGlobal<>(buildNetwork(), new TcpTransport("localhost", port));
+            assertEquals(1, server.getFullBroadcastCount());
+            assertEquals(0, server.getDeltaBroadcastCount());
+            assertEquals(0.0f, maxDifference(remote.getTarget(), served.getTarget()), 0.0f);
+
+            INDArray[] initialParams = dup(served.getTarget().getParams());
+            IActorCritic worker = remote.getTarget().clone();
+            for (int i = 0; i < NUM_UPDATES; ++i) {
+                remote.getTargetSnapshot().copyTo(worker);
+
+                INDArray input = Nd4j.rand(DataType.FLOAT, BATCH_SIZE, NUM_INPUTS);
+                INDArray valueLabels = Nd4j.rand(DataType.FLOAT, BATCH_SIZE, 1);
+                INDArray policyLabels = Nd4j.zeros(DataType.FLOAT, BATCH_SIZE, NUM_ACTIONS);
+                policyLabels.getColumn(0).assign(1.0);
+                remote.applyGradient(worker.gradient(input, new INDArray[]{valueLabels, policyLabels}), BATCH_SIZE);
+            }
+            assertEquals(NUM_UPDATES * BATCH_SIZE, remote.getStepCount());
+            assertEquals(NUM_UPDATES, remote.getWorkerUpdateCount());
+
+            // Pulled after each update but the first, and once more now; the worker was never out of sync
+            remote.getTargetSnapshot();
+            assertEquals(1, server.getFullBroadcastCount());
+            assertEquals(NUM_UPDATES, server.getDeltaBroadcastCount());
+
+            // Nothing changed since the last pull
+            remote.getTargetSnapshot();
+            assertEquals(1, server.getFullBroadcastCount());
+            assertEquals(NUM_UPDATES, server.getDeltaBroadcastCount());
+
+            assertTrue("The training must change the parameters by more than the tolerance",
+                    maxDifference(initialParams, served.getTarget().getParams()) > 2 * (deltaThreshold + FP16_TOLERANCE));
+
+            return maxDifference(remote.getTarget(), served.getTarget());
+        } finally {
+            if (remote != null) {
+                remote.terminate();
+            }
+            server.close();
+        }
+    }
+
+    private static IActorCritic buildNetwork() {
+        return new ActorCriticFactoryCompGraphStdDense(NETWORK_CONFIGURATION).buildActorCritic(new int[]{NUM_INPUTS}, NUM_ACTIONS);
+    }
+
+    private static INDArray[] dup(INDArray[] params) {
+        INDArray[] copy = new INDArray[params.length];
+        for (int i = 0; i < params.length; ++i) {
+            copy[i] = params[i].dup();
+        }
+        return copy;
+    }
+
+    private static float maxDifference(IActorCritic a, IActorCritic b) {
+        return maxDifference(a.getParams(), b.getParams());
+    }
+
+    private static float maxDifference(INDArray[] a, INDArray[] b) {
+        float max = 0.0f;
+        for (int i = 0; i < a.length; ++i) {
+            max = Math.max(max, a[i].sub(b[i]).amaxNumber().floatValue());
+        }
+        return max;
+    }
+}
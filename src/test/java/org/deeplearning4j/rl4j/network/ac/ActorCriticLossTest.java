@@ -0,0 +1,155 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Konduit K.K.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.deeplearning4j.rl4j.network.ac;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.nd4j.common.primitives.Pair;
+import org.nd4j.linalg.activations.impl.ActivationSoftmax;
+import org.nd4j.linalg.api.buffer.DataType;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.indexing.NDArrayIndex;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Compares the gradients of the fused softmax path of {@link ActorCriticLoss}, in FLOAT and DOUBLE, with central finite
+ * differences of its score computed in double precision from the same inputs.
+ * <p>
+ * As in the other DL4J losses, the mask is applied to the gradient (see {@link org.nd4j.linalg.lossfunctions.LossUtil}):
+ * the expected gradient is the one of the unmasked score, masked. With a per-example mask, this is also the gradient of
+ * the masked score; with a per-output mask, it is not, as the softmax couples the outputs of an example.
+ */
+public class ActorCriticLossTest {
+
+    private static final int NUM_EXAMPLES = 20;
+    private static final int NUM_ACTIONS = 4;
+    private static final DataType[] DATA_TYPES = new DataType[]{DataType.FLOAT, DataType.DOUBLE};
+
+    private static final double STEP = 1e-6;
+
+    // Relative to max(1, |gradient|)
+    private static final double FLOAT_TOLERANCE = 1e-5;
+    private static final double DOUBLE_TOLERANCE = 1e-6;
+
+    @Before
+    public void setUp() {
+        Nd4j.getRandom().setSeed(123);
+    }
+
+    @Test
+    public void when_cOrder_expect_gradientMatchesFiniteDifferences() {
+        for (DataType dataType : DATA_TYPES) {
+            checkGradient(new ActorCriticLoss(), preOutput(dataType, 'c'), labels(dataType, 'c'), null);
+        }
+    }
+
+    @Test
+    public void when_fOrder_expect_gradientMatchesFiniteDifferences() {
+        for (DataType dataType : DATA_TYPES) {
+            checkGradient(new ActorCriticLoss(), preOutput(dataType, 'f'), labels(dataType, 'f'), null);
+            checkGradient(new ActorCriticLoss(), preOutput(dataType, 'f'), labels(dataType, 'c'), null);
+        }
+    }
+
+    @Test
+    public void when_view_expect_gradientMatchesFiniteDifferences() {
+        for (DataType dataType : DATA_TYPES) {
+            INDArray preOutput = Nd4j.randn(dataType, NUM_EXAMPLES + 2, NUM_ACTIONS + 1).muli(3)
+                    .get(NDArrayIndex.interval(1, NUM_EXAMPLES + 1), NDArrayIndex.interval(1, NUM_ACTIONS + 1));
+            checkGradient(new ActorCriticLoss(), preOutput, labels(dataType, 'c'), null);
+        }
+    }
+
+    @Test
+    public void when_perExampleMask_expect_gradientMatchesFiniteDifferences() {
+        for (DataType dataType : DATA_TYPES) {
+            INDArray mask = Nd4j.rand(dataType, NUM_EXAMPLES, 1).gt(0.3).castTo(dataType);
+            checkGradient(new ActorCriticLoss(), preOutput(dataType, 'c'), labels(dataType, 'c'), mask);
+            checkGradient(new ActorCriticLoss(), preOutput(dataType, 'f'), labels(dataType, 'f'), mask);
+        }
+    }
+
+    @Test
+    public void when_perOutputMask_expect_gradientMatchesFiniteDifferences() {
+        for (DataType dataType : DATA_TYPES) {
+            INDArray mask = Nd4j.rand(dataType, NUM_EXAMPLES, NUM_ACTIONS).gt(0.3).castTo(dataType);
+            checkGradient(new ActorCriticLoss(), preOutput(dataType, 'c'), labels(dataType, 'c'), mask);
+            checkGradient(new ActorCriticLoss(), preOutput(dataType, 'f'), labels(dataType, 'f'), mask.dup('f'));
+        }
+    }
+
+    @Test
+    public void when_nonDefaultBeta_expect_gradientMatchesFiniteDifferences() {
+        for (DataType dataType : DATA_TYPES) {
+            checkGradient(new ActorCriticLoss(0.5), preOutput(dataType, 'c'), labels(dataType, 'c'), null);
+            checkGradient(new ActorCriticLoss(0.5), preOutput(dataType, 'f'), labels(dataType, 'f'), null);
+            checkGradient(new ActorCriticLoss(0.0), preOutput(dataType, 'c'), labels(dataType, 'c'), null);
+        }
+    }
+
+    private static INDArray preOutput(DataType dataType, char order) {
+        return Nd4j.randn(dataType, NUM_EXAMPLES, NUM_ACTIONS).muli(3).dup(order);
+    }
+
+    private static INDArray labels(DataType dataType, char order) {
+        return Nd4j.randn(dataType, NUM_EXAMPLES, NUM_ACTIONS).dup(order);
+    }
+
+    private static void checkGradient(ActorCriticLoss loss, INDArray preOutput, INDArray labels, INDArray mask) {
+        double tolerance = preOutput.dataType() == DataType.DOUBLE ? DOUBLE_TOLERANCE : FLOAT_TOLERANCE;
+
+        INDArray expected = numericalGradient(loss, labels.castTo(DataType.DOUBLE), preOutput.castTo(DataType.DOUBLE));
+        if (mask != null) {
+            INDArray doubleMask = mask.castTo(DataType.DOUBLE);
+            expected.muli(mask.size(1) == 1 ? doubleMask.repeat(1, NUM_ACTIONS) : doubleMask);
+        }
+
+        assertClose(expected, loss.computeGradient(labels, preOutput, new ActivationSoftmax(), mask), tolerance);
+
+        Pair<Double, INDArray> gradientAndScore = loss.computeGradientAndScore(labels, preOutput, new ActivationSoftmax(), mask, false);
+        assertClose(expected, gradientAndScore.getSecond(), tolerance);
+        assertEquals(loss.computeScore(labels, preOutput, new ActivationSoftmax(), mask, false), gradientAndScore.getFirst(), tolerance);
+    }
+
+    private static INDArray numericalGradient(ActorCriticLoss loss, INDArray labels, INDArray preOutput) {
+        INDArray gradient = Nd4j.zeros(DataType.DOUBLE, NUM_EXAMPLES, NUM_ACTIONS);
+        for (int i = 0; i < NUM_EXAMPLES; ++i) {
+            for (int j = 0; j < NUM_ACTIONS; ++j) {
+                INDArray plus = preOutput.dup();
+                plus.putScalar(i, j, plus.getDouble(i, j) + STEP);
+                INDArray minus = preOutput.dup();
+                minus.putScalar(i, j, minus.getDouble(i, j) - STEP);
+
+                double scorePlus = loss.computeScore(labels, plus, new ActivationSoftmax(), null, false);
+                double scoreMinus = loss.computeScore(labels, minus, new ActivationSoftmax(), null, false);
+                gradient.putScalar(i, j, (scorePlus - scoreMinus) / (2 * STEP));
+            }
+        }
+        return gradient;
+    }
+
+    private static void assertClose(INDArray expected, INDArray actual, double tolerance) {
+        for (int i = 0; i < NUM_EXAMPLES; ++i) {
+            for (int j = 0; j < NUM_ACTIONS; ++j) {
+                double value = expected.getDouble(i, j);
+                assertEquals("gradient " + i + ", " + j, value, actual.getDouble(i, j), tolerance * Math.max(1.0, Math.abs(value)));
+            }
+        }
+    }
+}
@@ -0,0 +1,113 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Konduit K.K.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.deeplearning4j.rl4j.network.ac;
+
+import org.deeplearning4j.rl4j.network.configuration.NetworkConfiguration;
+import org.junit.Test;
+import org.nd4j.linalg.api.buffer.DataType;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.learning.config.Adam;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Compares the outputs of the FLOAT16 and BFLOAT16 replicas of {@link IActorCritic#replicateForInference(DataType)} with
+ * the outputs of the FP32 network, when created and after a refresh with {@link IActorCritic#copy(IActorCritic)}.
+ */
+public class ReducedPrecisionReplicaTest {
+
+    private static final int NUM_INPUTS = 8;
+    private static final int NUM_ACTIONS = 4;
+    private static final int BATCH_SIZE = 32;
+
+    // Max absolute error of the probabilities, and of the values relative to max(1, |value|)
+    private static final double FLOAT16_TOLERANCE = 2e-3;
+    private static final double BFLOAT16_TOLERANCE = 2e-2;
+
+    private static final NetworkConfiguration NETWORK_CONFIGURATION = NetworkConfiguration.builder()
+            .numHiddenNodes(64)
+            .numLayers(2)
+            .updater(new Adam(1e-2))
+            .build();
+
+    @Test
+    public void when_compGraphReplicatedInFloat16_expect_outputsCloseToFloat() {
+        checkReplica(new ActorCriticFactoryCompGraphStdDense(NETWORK_CONFIGURATION).buildActorCritic(new int[]{NUM_INPUTS}, NUM_ACTIONS), DataType.FLOAT16, FLOAT16_TOLERANCE);
+    }
+
+    @Test
+    public void when_compGraphReplicatedInBFloat16_expect_outputsCloseToFloat() {
+        checkReplica(new ActorCriticFactoryCompGraphStdDense(NETWORK_CONFIGURATION).buildActorCritic(new int[]{NUM_INPUTS}, NUM_ACTIONS), DataType.BFLOAT16, BFLOAT16_TOLERANCE);
+    }
+
+    @Test
+    public void when_separateReplicatedInFloat16_expect_outputsCloseToFloat() {
+        checkReplica(new ActorCriticFactorySeparateStdDense(NETWORK_CONFIGURATION).buildActorCritic(new int[]{NUM_INPUTS}, NUM_ACTIONS), DataType.FLOAT16, FLOAT16_TOLERANCE);
+    }
+
+    @Test
+    public void when_separateReplicatedInBFloat16_expect_outputsCloseToFloat() {
+        checkReplica(new ActorCriticFactorySeparateStdDense(NETWORK_CONFIGURATION).buildActorCritic(new int[]{NUM_INPUTS}, NUM_ACTIONS), DataType.BFLOAT16, BFLOAT16_TOLERANCE);
+    }
+
+    private static <NN extends IActorCritic<NN>> void checkReplica(NN network, DataType dataType, double tolerance) {
+        Nd4j.getRandom().setSeed(123);
+        INDArray input = Nd4j.rand(DataType.FLOAT, BATCH_SIZE, NUM_INPUTS);
+
+        NN replica = network.replicateForInference(dataType);
+        assertEquals(dataType, replica.getNeuralNetworks()[0].params().dataType());
+        assertOutputsClose(network, replica, input, tolerance);
+
+        // Train the FP32 network to favor the first action, then refresh the replica from it
+        INDArray before = network.outputAll(input)[1].dup();
+        INDArray valueLabels = Nd4j.ones(DataType.FLOAT, BATCH_SIZE, 1);
+        INDArray policyLabels = Nd4j.zeros(DataType.FLOAT, BATCH_SIZE, NUM_ACTIONS);
+        policyLabels.getColumn(0).assign(1.0);
+        for (int i = 0; i < 20; ++i) {
+            network.fit(input, new INDArray[]{valueLabels, policyLabels});
+        }
+        assertTrue("The training must change the probabilities by more than the tolerance",
+                before.sub(network.outputAll(input)[1]).amaxNumber().doubleValue() > 10 * tolerance);
+
+        replica.copy(network);
+        assertEquals(dataType, replica.getNeuralNetworks()[0].params().dataType());
+        assertOutputsClose(network, replica, input, tolerance);
+    }
+
+    private static void assertOutputsClose(IActorCritic network, IActorCritic replica, INDArray input, double tolerance) {
+        INDArray[] expected = network.outputAll(input);
+        INDArray[] actual = replica.outputAll(input.castTo(replica.getNeuralNetworks()[0].params().dataType()));
+
+        INDArray expectedValues = expected[0];
+        INDArray actualValues = actual[0].castTo(DataType.FLOAT);
+        for (int i = 0; i < BATCH_SIZE; ++i) {
+            double value = expectedValues.getDouble(i, 0);
+            assertEquals("value " + i, value, actualValues.getDouble(i, 0), tolerance * Math.max(1.0, Math.abs(value)));
+        }
+
+        INDArray expectedProbabilities = expected[1];
+        INDArray actualProbabilities = actual[1].castTo(DataType.FLOAT);
+        for (int i = 0; i < BATCH_SIZE; ++i) {
+            for (int j = 0; j < NUM_ACTIONS; ++j) {
+                assertEquals("probability " + i + ", " + j, expectedProbabilities.getDouble(i, j), actualProbabilities.getDouble(i, j), tolerance);
+            }
+            assertEquals("sum of the probabilities " + i, 1.0, actualProbabilities.getRow(i).sumNumber().doubleValue(), tolerance);
+        }
+    }
+}